@@ -0,0 +1,36 @@
+package gofish;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public Deck constructAndShuffle() {
+        return new Deck(random);
+    }
+
+    @Benchmark
+    public void drawAll(Blackhole blackhole) {
+        Deck deck = new Deck(random);
+        Card card;
+        while ((card = deck.drawCard()) != null) {
+            blackhole.consume(card);
+        }
+    }
+}
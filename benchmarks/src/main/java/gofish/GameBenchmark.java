@@ -0,0 +1,103 @@
+package gofish;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    @Param({"2", "3", "4"})
+    private int players;
+
+    private String[] names;
+    private boolean[] isHuman;
+    private Random random;
+    private EventLog recordedLog;
+
+    @Setup
+    public void setUp() {
+        names = Arrays.copyOf(new String[]{"AI-Alice", "AI-Bob", "AI-Charlie", "AI-Dave"}, players);
+        isHuman = new boolean[players];
+        random = new Random(42);
+
+        Game recorded = new Game(names, isHuman, false, 42L);
+        recorded.play();
+        recordedLog = recorded.getEventLog();
+    }
+
+    // A dealt game whose seats land and score complete ranks in a fixed
+    // batch. Every set scored is recorded in the event log and counted in the
+    // scores; left alone, the log would grow for the whole run and the
+    // benchmark would measure its growth instead of the scoring. The game is
+    // dealt afresh each iteration, and the benchmark puts the log and scores
+    // back once per batch, which is cheap next to the batch itself.
+    @State(Scope.Thread)
+    public static class Scoring {
+        // Every seat and rank pair at the largest table
+        static final int BATCH = 52;
+
+        // Same name as the benchmark's parameter, so it takes the same value
+        @Param({"2", "3", "4"})
+        private int players;
+
+        private Game game;
+        private final Player[] batchPlayers = new Player[BATCH];
+        private final int[] batchRanks = new int[BATCH];
+        private int dealtEvents;
+
+        @Setup(Level.Iteration)
+        public void deal() {
+            String[] names = Arrays.copyOf(new String[]{"AI-Alice", "AI-Bob", "AI-Charlie", "AI-Dave"}, players);
+            game = new Game(names, new boolean[players], false, 42L);
+            for (int i = 0; i < BATCH; i++) {
+                batchPlayers[i] = game.getPlayers().get(i % players);
+                batchRanks[i] = i % Card.RANK_COUNT;
+            }
+            dealtEvents = game.getEventLog().size();
+        }
+
+        void reset() {
+            game.getEventLog().truncate(dealtEvents);
+            for (Player player : game.getPlayers()) {
+                game.getScores().put(player, 0);
+            }
+        }
+    }
+
+    // Full headless game with no listener attached
+    @Benchmark
+    public Game playthrough() {
+        Game game = new Game(names, isHuman, false, random.nextLong());
+        game.play();
+        return game;
+    }
+
+    // Rebuilds the outcome of a recorded game from its event log
+    @Benchmark
+    public int[] replay() {
+        return recordedLog.replayScores(players);
+    }
+
+    // Lands a complete rank in a seat's hand and scores it, which removes it
+    // again, for each seat and rank in the batch
+    @Benchmark
+    @OperationsPerInvocation(Scoring.BATCH)
+    public int checkAndScoreSet(Scoring scoring) {
+        Game game = scoring.game;
+        for (int i = 0; i < Scoring.BATCH; i++) {
+            Player player = scoring.batchPlayers[i];
+            int rankIndex = scoring.batchRanks[i];
+            player.addCards(Player.rankMask(rankIndex));
+            game.checkAndScoreSet(player, rankIndex);
+        }
+        scoring.reset();
+        return game.getEventLog().size();
+    }
+}
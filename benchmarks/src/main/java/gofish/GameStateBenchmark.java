@@ -0,0 +1,62 @@
+package gofish;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateBenchmark {
+    @Param({"2", "4"})
+    private int players;
+
+    private GameState root;
+    private GameState scratch;
+    private SplittableRandom random;
+    private int move;
+
+    @Setup
+    public void setUp() {
+        String[] names = Arrays.copyOf(new String[]{"AI-Alice", "AI-Bob", "AI-Charlie", "AI-Dave"}, players);
+        root = new Game(names, new boolean[players], false, 42L).snapshot();
+        scratch = new GameState(players);
+        random = new SplittableRandom(42);
+    }
+
+    // Forks a new state; the deck is shared, not copied
+    @Benchmark
+    public GameState copy() {
+        return root.copy();
+    }
+
+    // Resets a reused state, as rollouts do
+    @Benchmark
+    public GameState copyFrom() {
+        scratch.copyFrom(root);
+        return scratch;
+    }
+
+    // One search step down and back up again
+    @Benchmark
+    public int pushAskUndo() {
+        move++;
+        root.push();
+        root.ask(move % Card.RANK_COUNT, 1 + move % (players - 1));
+        root.undo();
+        return root.getCurrent();
+    }
+
+    // Plays a snapshot to the end with random moves
+    @Benchmark
+    public int rollout() {
+        scratch.copyFrom(root);
+        scratch.playOut(random, 2_000);
+        return scratch.getScore(0);
+    }
+}
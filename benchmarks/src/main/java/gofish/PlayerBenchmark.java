@@ -0,0 +1,69 @@
+package gofish;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerBenchmark {
+    private Player player;
+    private Player other;
+    private Card[] cards;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        player = new Player("A");
+        other = new Player("B");
+        // A typical mid-game hand: ten cards dealt from a seeded deck
+        Deck deck = new Deck(new Random(42));
+        for (int i = 0; i < 10; i++) {
+            player.addCard(deck.drawCard());
+        }
+        cards = new Card[Card.DECK_SIZE];
+        for (int code = 0; code < cards.length; code++) {
+            cards[code] = Card.of(code);
+        }
+    }
+
+    @Benchmark
+    public void addCard() {
+        other.addCard(cards[next]);
+        next = (next + 1) % cards.length;
+    }
+
+    @Benchmark
+    public void hasCard(Blackhole blackhole) {
+        for (String rank : Card.RANKS) {
+            blackhole.consume(player.hasCard(rank));
+        }
+    }
+
+    // Hands a rank over and back, so the hands are unchanged between calls
+    @Benchmark
+    public void giveCardsRoundTrip(Blackhole blackhole) {
+        String rank = player.getHand().get(0).getRank();
+        for (Card card : player.giveCards(rank)) {
+            other.addCard(card);
+        }
+        for (Card card : other.giveCards(rank)) {
+            player.addCard(card);
+        }
+        blackhole.consume(player);
+    }
+
+    @Benchmark
+    public void takeRankRoundTrip(Blackhole blackhole) {
+        int rankIndex = player.getHand().get(0).getRankIndex();
+        other.addCards(player.takeRank(rankIndex));
+        player.addCards(other.takeRank(rankIndex));
+        blackhole.consume(player);
+    }
+}
@@ -0,0 +1,182 @@
+package gofish;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Plays thousands of all-AI games back to back on a thread with a small
+// stack. Turns return to Game's turn loop instead of calling the next one, so
+// a game of any length runs at the same stack depth; with the old recursion
+// the longer games here would overflow this stack. Every turn also checks
+// that no card has been lost or duplicated.
+class GameStressTest {
+    private static final int GAMES = 2_000;
+    private static final long SEED = 0x5EED_F15BL;
+    private static final long STACK_BYTES = 256 * 1024;
+    private static final String[] NAMES = {"AI-Alice", "AI-Bob", "AI-Charlie", "AI-Dave"};
+    // Asks where it expects to miss 31 times in 32, so its games drag on for
+    // up to thousands of turns; the random asks in between keep them finite
+    private static final Strategy DAWDLER = new Strategy() {
+        @Override
+        public String getName() {
+            return "dawdler";
+        }
+
+        @Override
+        public Move chooseMove(Game game, int seat) {
+            Move[] asks = new Move[Card.RANK_COUNT * Game.MAX_PLAYERS];
+            Move[] misses = new Move[asks.length];
+            int askCount = 0;
+            int missCount = 0;
+            long hand = game.getPlayers().get(seat).getHandBits();
+            for (int target = 0; target < game.getPlayers().size(); target++) {
+                if (target == seat || !game.getPlayers().get(target).hasCards()) continue;
+                int lacks = game.getKnowledge().getKnownLacks(target);
+                for (int rankIndex = 0; rankIndex < Card.RANK_COUNT; rankIndex++) {
+                    if ((hand & Player.rankMask(rankIndex)) == 0) continue;
+                    asks[askCount++] = Move.of(rankIndex, target);
+                    if ((lacks & 1 << rankIndex) != 0) {
+                        misses[missCount++] = Move.of(rankIndex, target);
+                    }
+                }
+            }
+            if (askCount == 0) {
+                return null;
+            }
+            Random random = game.getRandom();
+            return missCount > 0 && random.nextInt(32) != 0
+                ? misses[random.nextInt(missCount)]
+                : asks[random.nextInt(askCount)];
+        }
+    };
+    private static final Strategy[] STRATEGIES = {Strategies.SIMPLE, Strategies.MEMORY, DAWDLER, DAWDLER};
+
+    @Test
+    void longGamesBackToBackRunAtConstantDepthAndKeepEveryCard() throws InterruptedException {
+        Stats stats = new Stats();
+        Throwable[] failure = new Throwable[1];
+        Thread runner = new Thread(null, () -> {
+            try {
+                playGames(stats);
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        }, "stress", STACK_BYTES);
+        runner.start();
+        runner.join();
+
+        if (failure[0] instanceof StackOverflowError) {
+            fail("Game overflowed a " + STACK_BYTES / 1024 + " KB stack", failure[0]);
+        }
+        if (failure[0] instanceof AssertionError e) {
+            throw e;
+        }
+        assertNull(failure[0], () -> "Game failed: " + failure[0]);
+        assertEquals(GAMES, stats.games);
+        // The longest game must be far longer than the shortest for the depth
+        // comparison to mean anything
+        assertTrue(stats.longestGame > 10 * stats.shortestGame,
+            "Games ran " + stats.shortestGame + " to " + stats.longestGame + " turns");
+        assertEquals(stats.depthInShortestGame, stats.depthInLongestGame,
+            "Stack depth grew with game length");
+    }
+
+    private static void playGames(Stats stats) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < GAMES; i++) {
+            int players = 2 + random.nextInt(Game.MAX_PLAYERS - 1);
+            long seed = random.nextLong();
+            Game game = new Game(Arrays.copyOf(NAMES, players), new boolean[players], false, seed);
+            for (int seat = 0; seat < players; seat++) {
+                game.setStrategy(seat, STRATEGIES[random.nextInt(STRATEGIES.length)]);
+            }
+            CardAccounting accounting = new CardAccounting(seed);
+            game.setListener(accounting);
+            game.play();
+
+            assertTrue(game.isGameEnded(), "Game " + seed + " stopped before the end");
+            GameSnapshot end = game.getLatestSnapshot();
+            int sets = 0;
+            for (int seat = 0; seat < players; seat++) {
+                assertEquals(0, end.getHand(seat), "Game " + seed + " ended with cards in hand");
+                sets += end.getScore(seat);
+            }
+            assertEquals(Card.RANK_COUNT, sets, "Game " + seed + " ended with sets missing");
+            assertArrayEquals(game.getEventLog().replayScores(players), scores(end),
+                "Game " + seed + " disagrees with its event log");
+            stats.add(accounting);
+        }
+    }
+
+    private static int[] scores(GameSnapshot snapshot) {
+        int[] scores = new int[snapshot.getPlayerCount()];
+        for (int seat = 0; seat < scores.length; seat++) {
+            scores[seat] = snapshot.getScore(seat);
+        }
+        return scores;
+    }
+
+    // Checks every position the game reports: each of the 52 cards is in
+    // exactly one hand, the deck or a completed set
+    private static final class CardAccounting implements GameListener {
+        private final long seed;
+        int turns;
+        int maxDepth;
+
+        CardAccounting(long seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        public void updateGameState(GameSnapshot snapshot) {
+            turns++;
+            maxDepth = Math.max(maxDepth, StackWalker.getInstance().walk(frames -> (int) frames.count()));
+            long held = 0;
+            int cards = snapshot.getDeckSize();
+            for (int seat = 0; seat < snapshot.getPlayerCount(); seat++) {
+                long hand = snapshot.getHand(seat);
+                assertEquals(0, held & hand, "Game " + seed + " dealt a card twice");
+                held |= hand;
+                cards += Long.bitCount(hand) + snapshot.getScore(seat) * Card.SUIT_COUNT;
+            }
+            assertEquals(Card.DECK_SIZE, cards, "Game " + seed + " lost track of cards on turn " + turns);
+        }
+
+        @Override
+        public void appendToGameLog(String message) {
+        }
+
+        @Override
+        public void showGameOver(String message) {
+        }
+
+        @Override
+        public void commandFailed(RuntimeException error) {
+            throw error;
+        }
+    }
+
+    private static final class Stats {
+        int games;
+        int shortestGame = Integer.MAX_VALUE;
+        int longestGame;
+        int depthInShortestGame;
+        int depthInLongestGame;
+
+        void add(CardAccounting game) {
+            games++;
+            if (game.turns < shortestGame) {
+                shortestGame = game.turns;
+                depthInShortestGame = game.maxDepth;
+            }
+            if (game.turns > longestGame) {
+                longestGame = game.turns;
+                depthInLongestGame = game.maxDepth;
+            }
+        }
+    }
+}
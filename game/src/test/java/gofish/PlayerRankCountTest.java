@@ -0,0 +1,127 @@
+package gofish;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Random sequences of adds, gives and removals on a seated player, scored the
+// way Game scores them. After every step each per-rank count must match a
+// brute-force recount of the hand's bits and of a separate model of the
+// cards held, and a set must be scored exactly when its fourth card lands.
+class PlayerRankCountTest {
+    private static final int SEQUENCES = 500;
+    private static final int STEPS = 300;
+
+    @Test
+    void rankCountsAndScoringMatchABruteForceRecount() {
+        SplittableRandom seeds = new SplittableRandom(0xC0A7L);
+        for (int sequence = 0; sequence < SEQUENCES; sequence++) {
+            long seed = seeds.nextLong();
+            runSequence(seed, new SplittableRandom(seed));
+        }
+    }
+
+    private static void runSequence(long seed, SplittableRandom random) {
+        Game game = new Game(new String[]{"A", "B"}, new boolean[2], false, seed);
+        Player player = game.getPlayers().get(0);
+        for (int rankIndex = 0; rankIndex < Card.RANK_COUNT; rankIndex++) {
+            player.takeRank(rankIndex);
+        }
+        int startScore = game.getScores().get(player);
+        boolean[] held = new boolean[Card.DECK_SIZE];
+        int expectedScore = startScore;
+
+        for (int step = 0; step < STEPS; step++) {
+            String where = "seed " + seed + ", step " + step;
+            int rankIndex = random.nextInt(Card.RANK_COUNT);
+            String rank = Card.RANKS[rankIndex];
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    int code = rankIndex * Card.SUIT_COUNT + random.nextInt(Card.SUIT_COUNT);
+                    player.addCard(Card.of(code));
+                    held[code] = true;
+                }
+                case 1 -> {
+                    long cards = Player.rankMask(rankIndex) & random.nextLong();
+                    player.addCards(cards);
+                    for (int code = 0; code < Card.DECK_SIZE; code++) {
+                        if ((cards >>> code & 1) != 0) held[code] = true;
+                    }
+                }
+                case 2 -> {
+                    List<Card> given = player.giveCards(rank);
+                    assertEquals(modelCount(held, rankIndex), given.size(), where + ": gave " + given);
+                    for (Card card : given) {
+                        assertEquals(rankIndex, card.getRankIndex(), where + ": gave " + card);
+                        assertTrue(held[card.getCode()], where + ": gave " + card + ", which was not held");
+                        held[card.getCode()] = false;
+                    }
+                }
+                case 3 -> {
+                    long taken = player.takeRank(rankIndex);
+                    assertEquals(modelBits(held, rankIndex), taken, where + ": took the wrong cards");
+                    clearRank(held, rankIndex);
+                }
+                default -> {
+                    player.removeCards(rank);
+                    clearRank(held, rankIndex);
+                }
+            }
+
+            // Scoring looks only at the rank that just changed
+            if (modelCount(held, rankIndex) == Card.SUIT_COUNT) {
+                expectedScore++;
+                clearRank(held, rankIndex);
+            }
+            game.checkAndScoreSet(player, rankIndex);
+            assertEquals(expectedScore, (int) game.getScores().get(player), where + ": score");
+            checkCounts(player, held, where);
+        }
+    }
+
+    private static void checkCounts(Player player, boolean[] held, String where) {
+        long hand = player.getHandBits();
+        int total = 0;
+        for (int rankIndex = 0; rankIndex < Card.RANK_COUNT; rankIndex++) {
+            int recount = 0;
+            for (int code = 0; code < Card.DECK_SIZE; code++) {
+                if (code / Card.SUIT_COUNT == rankIndex && (hand >>> code & 1) != 0) recount++;
+            }
+            int expected = modelCount(held, rankIndex);
+            assertEquals(expected, recount, where + ": hand bits for " + Card.RANKS[rankIndex] + "s");
+            assertEquals(expected, player.getRankCount(rankIndex), where + ": count of " + Card.RANKS[rankIndex] + "s");
+            assertEquals(expected > 0, player.hasRank(rankIndex), where + ": hasRank " + Card.RANKS[rankIndex]);
+            assertTrue(expected < Card.SUIT_COUNT, where + ": unscored set of " + Card.RANKS[rankIndex] + "s");
+            total += expected;
+        }
+        assertEquals(0, hand >>> Card.DECK_SIZE, where + ": bits beyond the deck");
+        assertEquals(total, player.getHandSize(), where + ": hand size");
+        assertEquals(total, player.getHand().size(), where + ": hand view size");
+        for (Card card : player.getHand()) {
+            assertTrue(held[card.getCode()], where + ": holds " + card + " unexpectedly");
+        }
+        assertTrue(player.getCompletedSets().isEmpty(), where + ": completed sets left in hand");
+    }
+
+    private static int modelCount(boolean[] held, int rankIndex) {
+        return Long.bitCount(modelBits(held, rankIndex));
+    }
+
+    private static long modelBits(boolean[] held, int rankIndex) {
+        long bits = 0;
+        for (int suit = 0; suit < Card.SUIT_COUNT; suit++) {
+            int code = rankIndex * Card.SUIT_COUNT + suit;
+            if (held[code]) bits |= 1L << code;
+        }
+        return bits;
+    }
+
+    private static void clearRank(boolean[] held, int rankIndex) {
+        for (int suit = 0; suit < Card.SUIT_COUNT; suit++) {
+            held[rankIndex * Card.SUIT_COUNT + suit] = false;
+        }
+    }
+}
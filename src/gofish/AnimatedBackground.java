@@ -0,0 +1,299 @@
+package gofish;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.*;
+
+// Gradient backdrop with rising bubbles. The gradient is rendered once into a
+// VolatileImage and blitted, bubbles are pre-rendered sprites (one per size,
+// colour and opacity step, at the device scale), and each frame repaints only
+// the boxes the bubbles moved through.
+//
+// The panel sits behind the whole game UI, so it watches its own cost: when
+// painting takes more than FRAME_BUDGET_NANOS a frame on average, it drops to
+// drawing half the bubbles, then none, and climbs back after a run of cheap
+// frames.
+public class AnimatedBackground extends JPanel {
+    public static final int QUALITY_LOW = 0;
+    public static final int QUALITY_MEDIUM = 1;
+    public static final int QUALITY_HIGH = 2;
+
+    private static final long FRAME_BUDGET_NANOS = 4_000_000;
+    private static final int MIN_SIZE = 10;
+    private static final int SIZES = 30;
+    private static final int PALETTE_SIZE = 8;
+    private static final int OPACITY_LEVELS = 5;
+
+    private final java.util.List<Bubble> bubbles;
+    private final Animator.FrameListener frameListener = this::advance;
+    private boolean animating = true;
+    private final Random random;
+    private final Color backgroundColor;
+    private final int numBubbles = 20;
+    private final Color[] palette = new Color[PALETTE_SIZE];
+
+    private VolatileImage gradient;
+    private BufferedImage gradientFallback;
+    private final BufferedImage[] sprites = new BufferedImage[SIZES * PALETTE_SIZE * OPACITY_LEVELS];
+    private double spriteScale;
+
+    private int quality = QUALITY_HIGH;
+    private long paintNanos;
+    private double averagePaintNanos;
+    private int cheapFrames;
+    private int recoveryFrames = 300;
+
+    private class Bubble {
+        // x is a fraction of the width, so bubbles spread out whatever size
+        // the panel is given later
+        double x, y;
+        double speed;
+        int size;
+        int colorIndex;
+        int opacityLevel;
+
+        Bubble() {
+            reset();
+        }
+
+        void reset() {
+            x = random.nextDouble();
+            y = getHeight() + random.nextDouble() * 50;
+            speed = 1 + random.nextDouble() * 2;
+            size = MIN_SIZE + random.nextInt(SIZES);
+            colorIndex = random.nextInt(PALETTE_SIZE);
+            opacityLevel = random.nextInt(OPACITY_LEVELS);
+        }
+
+        // speed is in pixels per 50 ms step
+        void move(double steps) {
+            y -= speed * steps;
+            if (y + size < 0) {
+                reset();
+            }
+        }
+
+        int left() {
+            return (int) (x * getWidth());
+        }
+
+        int top() {
+            return (int) Math.floor(y);
+        }
+
+        int spriteIndex() {
+            return ((size - MIN_SIZE) * PALETTE_SIZE + colorIndex) * OPACITY_LEVELS + opacityLevel;
+        }
+    }
+
+    public AnimatedBackground() {
+        backgroundColor = new Color(20, 40, 60); // Dark blue background
+        random = new Random();
+        bubbles = new java.util.ArrayList<>();
+
+        for (int i = 0; i < PALETTE_SIZE; i++) {
+            palette[i] = new Color(
+                random.nextInt(100) + 156,
+                random.nextInt(100) + 156,
+                random.nextInt(100) + 156
+            );
+        }
+        for (int i = 0; i < numBubbles; i++) {
+            bubbles.add(new Bubble());
+        }
+    }
+
+    public int getQuality() {
+        return quality;
+    }
+
+    // Bubbles only move while the panel is on screen
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (animating) {
+            Animator.get().addFrameListener(frameListener);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        Animator.get().removeFrameListener(frameListener);
+        if (gradient != null) {
+            gradient.flush();
+            gradient = null;
+        }
+        gradientFallback = null;
+        super.removeNotify();
+    }
+
+    private void advance(long elapsedNanos) {
+        adjustQuality();
+
+        double steps = elapsedNanos / 50_000_000.0;
+        int stride = visibleStride();
+        for (int i = 0; i < bubbles.size(); i++) {
+            Bubble bubble = bubbles.get(i);
+            if (stride == 0 || i % stride != 0) {
+                bubble.move(steps);
+                continue;
+            }
+            int left = bubble.left();
+            int oldTop = bubble.top();
+            bubble.move(steps);
+            int newTop = bubble.top();
+            Animator animator = Animator.get();
+            if (newTop <= oldTop) {
+                // Moving up: one box covers where it was and where it is
+                animator.markDirty(this, left, newTop, bubble.size + 1, oldTop - newTop + bubble.size + 1);
+            } else {
+                // Wrapped around to the bottom
+                animator.markDirty(this, left, oldTop, bubble.size + 1, bubble.size + 1);
+                animator.markDirty(this, bubble.left(), newTop, bubble.size + 1, bubble.size + 1);
+            }
+        }
+    }
+
+    // Every stride-th bubble is drawn; 0 means none
+    private int visibleStride() {
+        return quality == QUALITY_HIGH ? 1 : quality == QUALITY_MEDIUM ? 2 : 0;
+    }
+
+    private void adjustQuality() {
+        averagePaintNanos += (paintNanos - averagePaintNanos) * 0.1;
+        paintNanos = 0;
+        if (quality > QUALITY_LOW && averagePaintNanos > FRAME_BUDGET_NANOS) {
+            quality--;
+            averagePaintNanos = 0;
+            cheapFrames = 0;
+            // Each drop makes the next climb wait longer, so a slow machine
+            // does not keep bouncing between levels
+            recoveryFrames = Math.min(recoveryFrames * 2, 60 * 60);
+            // Clear the bubbles that are no longer drawn
+            Animator.get().markDirty(this, 0, 0, getWidth(), getHeight());
+        } else if (averagePaintNanos < FRAME_BUDGET_NANOS / 4) {
+            if (quality < QUALITY_HIGH && ++cheapFrames >= recoveryFrames) {
+                quality++;
+                cheapFrames = 0;
+            }
+        } else {
+            cheapFrames = 0;
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        Graphics2D g2d = (Graphics2D) g.create();
+        Rectangle clip = g2d.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+
+        paintGradient(g2d, clip);
+
+        // Draw bubbles
+        int stride = visibleStride();
+        if (stride > 0) {
+            double scale = g2d.getTransform().getScaleX();
+            if (scale != spriteScale) {
+                Arrays.fill(sprites, null);
+                spriteScale = scale;
+            }
+            for (int i = 0; i < bubbles.size(); i += stride) {
+                Bubble bubble = bubbles.get(i);
+                int left = bubble.left();
+                int top = bubble.top();
+                if (clip.intersects(left, top, bubble.size + 1, bubble.size + 1)) {
+                    g2d.drawImage(sprite(bubble), left, top, bubble.size + 1, bubble.size + 1, null);
+                }
+            }
+        }
+
+        g2d.dispose();
+        paintNanos += System.nanoTime() - start;
+    }
+
+    private void paintGradient(Graphics2D g2d, Rectangle clip) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) return;
+
+        do {
+            int status = gradient == null ? VolatileImage.IMAGE_INCOMPATIBLE
+                : gradient.validate(getGraphicsConfiguration());
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE
+                    || gradient.getWidth() != width || gradient.getHeight() != height) {
+                if (gradient != null) {
+                    gradient.flush();
+                }
+                // No accelerated surface when headless or not yet displayable
+                gradient = createVolatileImage(width, height);
+                if (gradient == null) {
+                    paintGradientFallback(g2d, clip, width, height);
+                    return;
+                }
+                status = VolatileImage.IMAGE_RESTORED;
+            }
+            if (status == VolatileImage.IMAGE_RESTORED) {
+                Graphics2D target = gradient.createGraphics();
+                fillGradient(target, width, height);
+                target.dispose();
+            }
+            int x2 = clip.x + clip.width;
+            int y2 = clip.y + clip.height;
+            g2d.drawImage(gradient, clip.x, clip.y, x2, y2, clip.x, clip.y, x2, y2, null);
+        } while (gradient.contentsLost());
+    }
+
+    private void paintGradientFallback(Graphics2D g2d, Rectangle clip, int width, int height) {
+        if (gradientFallback == null || gradientFallback.getWidth() != width
+                || gradientFallback.getHeight() != height) {
+            gradientFallback = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D target = gradientFallback.createGraphics();
+            fillGradient(target, width, height);
+            target.dispose();
+        }
+        int x2 = clip.x + clip.width;
+        int y2 = clip.y + clip.height;
+        g2d.drawImage(gradientFallback, clip.x, clip.y, x2, y2, clip.x, clip.y, x2, y2, null);
+    }
+
+    // Draw background gradient
+    private void fillGradient(Graphics2D g2d, int width, int height) {
+        g2d.setPaint(new GradientPaint(
+            0, 0, backgroundColor,
+            0, height, new Color(10, 20, 30)
+        ));
+        g2d.fillRect(0, 0, width, height);
+    }
+
+    // Antialiased disc with the bubble's colour and opacity baked in, so
+    // drawing it needs no composite change. Made at the device scale.
+    private BufferedImage sprite(Bubble bubble) {
+        int index = bubble.spriteIndex();
+        BufferedImage sprite = sprites[index];
+        if (sprite == null) {
+            int pixels = (int) Math.ceil((bubble.size + 1) * spriteScale);
+            sprite = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = sprite.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.scale(spriteScale, spriteScale);
+            float opacity = 0.1f + 0.1f * bubble.opacityLevel;
+            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity));
+            g2d.setColor(palette[bubble.colorIndex]);
+            g2d.fill(new Ellipse2D.Double(0, 0, bubble.size, bubble.size));
+            g2d.dispose();
+            sprites[index] = sprite;
+        }
+        return sprite;
+    }
+
+    public void stopAnimation() {
+        animating = false;
+        Animator.get().removeFrameListener(frameListener);
+    }
+}
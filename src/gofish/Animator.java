@@ -0,0 +1,260 @@
+package gofish;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One frame clock for every animation in the GUI. A single Swing timer ticks
+// while anything is animating and stops when nothing is. Each tick advances
+// every active tween, calls every frame listener, then repaints what was
+// marked dirty during the tick. Dirty regions of a component are merged
+// where they touch or are close, and kept apart otherwise: one region goes
+// through the usual coalesced repaint, while several far-apart regions are
+// painted one by one, because the RepaintManager would otherwise paint the
+// whole area spanning them.
+// Finished tweens go back to a pool, so a steady stream of card animations
+// allocates nothing once the pool has grown to the peak number in flight.
+//
+// Everything here runs on the event thread.
+public final class Animator {
+    public static final int FRAME_MILLIS = 16;
+
+    private static final Animator SHARED = new Animator();
+
+    public enum Easing {
+        LINEAR,
+        EASE_OUT_CUBIC,
+        EASE_IN_OUT_CUBIC;
+
+        float apply(float t) {
+            switch (this) {
+                case EASE_OUT_CUBIC:
+                    float inverse = 1 - t;
+                    return 1 - inverse * inverse * inverse;
+                case EASE_IN_OUT_CUBIC:
+                    if (t < 0.5f) return 4 * t * t * t;
+                    float rest = -2 * t + 2;
+                    return 1 - rest * rest * rest / 2;
+                default:
+                    return t;
+            }
+        }
+    }
+
+    public interface TweenListener {
+        // progress is eased and runs from 0 to exactly 1 on the last frame
+        void update(float progress);
+    }
+
+    public interface FrameListener {
+        void onFrame(long elapsedNanos);
+    }
+
+    // Handle to a running tween. Handles are recycled once the tween ends,
+    // so only hold on to one while it is running.
+    public static final class Tween {
+        private long startNanos;
+        private long durationNanos;
+        private Easing easing;
+        private TweenListener listener;
+        private Runnable onComplete;
+
+        private void clear() {
+            easing = null;
+            listener = null;
+            onComplete = null;
+        }
+    }
+
+    private final Timer timer;
+    private final List<Tween> active = new ArrayList<>();
+    private final ArrayDeque<Tween> pool = new ArrayDeque<>();
+    private final List<FrameListener> frameListeners = new ArrayList<>();
+    private static final int MAX_REGIONS = 8;
+
+    private final Map<JComponent, DirtyRegions> dirty = new IdentityHashMap<>();
+    private long lastFrameNanos;
+
+    private Animator() {
+        timer = new Timer(FRAME_MILLIS, e -> tick());
+        timer.setCoalesce(true);
+    }
+
+    public static Animator get() {
+        return SHARED;
+    }
+
+    // Runs listener over durationMillis, starting delayMillis from now.
+    // onComplete may be null.
+    public Tween tween(long delayMillis, long durationMillis, Easing easing,
+                       TweenListener listener, Runnable onComplete) {
+        Tween tween = pool.isEmpty() ? new Tween() : pool.pop();
+        tween.startNanos = System.nanoTime() + delayMillis * 1_000_000;
+        tween.durationNanos = Math.max(0, durationMillis) * 1_000_000;
+        tween.easing = easing;
+        tween.listener = listener;
+        tween.onComplete = onComplete;
+        active.add(tween);
+        ensureRunning();
+        return tween;
+    }
+
+    // Runs action once, delayMillis from now, on the frame clock
+    public Tween after(long delayMillis, Runnable action) {
+        return tween(delayMillis, 0, Easing.LINEAR, null, action);
+    }
+
+    // Drops a running tween without calling its completion. It is taken out
+    // on the next tick, so this is safe from inside a listener.
+    public void cancel(Tween tween) {
+        tween.listener = null;
+        tween.onComplete = null;
+        tween.startNanos = 0;
+        tween.durationNanos = 0;
+    }
+
+    public void addFrameListener(FrameListener listener) {
+        if (!frameListeners.contains(listener)) {
+            frameListeners.add(listener);
+            ensureRunning();
+        }
+    }
+
+    public void removeFrameListener(FrameListener listener) {
+        frameListeners.remove(listener);
+    }
+
+    // Adds a region of component to this frame's repaint
+    public void markDirty(JComponent component, int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        DirtyRegions regions = dirty.get(component);
+        if (regions == null) {
+            regions = new DirtyRegions();
+            dirty.put(component, regions);
+        }
+        regions.add(x, y, width, height);
+    }
+
+    public int getActiveTweenCount() {
+        return active.size();
+    }
+
+    private void ensureRunning() {
+        if (!timer.isRunning()) {
+            lastFrameNanos = System.nanoTime();
+            timer.start();
+        }
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        long elapsed = now - lastFrameNanos;
+        lastFrameNanos = now;
+
+        // Finished tweens are compacted out in place. Listeners may start
+        // new tweens, which land past count and are first advanced next frame.
+        int count = active.size();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            Tween tween = active.get(i);
+            if (now < tween.startNanos) {
+                active.set(kept++, tween);
+                continue;
+            }
+            long run = now - tween.startNanos;
+            boolean done = run >= tween.durationNanos;
+            if (tween.listener != null) {
+                float t = done ? 1f : (float) run / tween.durationNanos;
+                tween.listener.update(done ? 1f : tween.easing.apply(t));
+            }
+            if (!done) {
+                active.set(kept++, tween);
+                continue;
+            }
+            Runnable onComplete = tween.onComplete;
+            tween.clear();
+            pool.push(tween);
+            if (onComplete != null) {
+                onComplete.run();
+            }
+        }
+        for (int i = count; i < active.size(); i++) {
+            active.set(kept++, active.get(i));
+        }
+        active.subList(kept, active.size()).clear();
+
+        for (int i = 0; i < frameListeners.size(); i++) {
+            frameListeners.get(i).onFrame(elapsed);
+        }
+
+        for (Map.Entry<JComponent, DirtyRegions> entry : dirty.entrySet()) {
+            entry.getValue().flush(entry.getKey());
+        }
+
+        if (active.isEmpty() && frameListeners.isEmpty()) {
+            timer.stop();
+            dirty.clear();
+        }
+    }
+
+    // Up to MAX_REGIONS rectangles, reused from frame to frame
+    private static final class DirtyRegions {
+        private final Rectangle[] regions = new Rectangle[MAX_REGIONS];
+        private int count;
+
+        void add(int x, int y, int width, int height) {
+            // Merge into a region when the union adds no more than twice the
+            // new rectangle's area; once the slots run out, into the region
+            // that grows least
+            int best = -1;
+            long bestGrowth = Long.MAX_VALUE;
+            long area = (long) width * height;
+            for (int i = 0; i < count; i++) {
+                Rectangle region = regions[i];
+                long union = unionArea(region, x, y, width, height);
+                long growth = union - (long) region.width * region.height;
+                if (union <= (long) region.width * region.height + area * 2) {
+                    region.add(x, y);
+                    region.add(x + width, y + height);
+                    return;
+                }
+                if (growth < bestGrowth) {
+                    bestGrowth = growth;
+                    best = i;
+                }
+            }
+            if (count < MAX_REGIONS) {
+                if (regions[count] == null) {
+                    regions[count] = new Rectangle();
+                }
+                regions[count++].setBounds(x, y, width, height);
+            } else {
+                regions[best].add(x, y);
+                regions[best].add(x + width, y + height);
+            }
+        }
+
+        void flush(JComponent component) {
+            if (count == 1) {
+                component.repaint(regions[0]);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    component.paintImmediately(regions[i]);
+                }
+            }
+            count = 0;
+        }
+
+        private static long unionArea(Rectangle region, int x, int y, int width, int height) {
+            long left = Math.min(region.x, x);
+            long top = Math.min(region.y, y);
+            long right = Math.max((long) region.x + region.width, (long) x + width);
+            long bottom = Math.max((long) region.y + region.height, (long) y + height);
+            return (right - left) * (bottom - top);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package gofish;
+
+import java.util.*;
+
+// Plays many all-AI games in lockstep. Every game runs until it needs an AI
+// decision; the pending decisions are then grouped by strategy and each
+// strategy gets one chooseMoves call for its whole group, so expensive
+// strategies can amortise their setup over the batch.
+public final class BatchRunner {
+    private BatchRunner() {
+    }
+
+    public static void playAll(List<Game> games) {
+        List<Game> pending = new ArrayList<>(games.size());
+        for (Game game : games) {
+            game.setDeferDecisions(true);
+            game.play();
+            if (game.isAwaitingDecision()) {
+                pending.add(game);
+            }
+        }
+
+        Map<Strategy, List<Game>> byStrategy = new IdentityHashMap<>();
+        Move[] moves = new Move[games.size()];
+        while (!pending.isEmpty()) {
+            for (Game game : pending) {
+                Strategy strategy = game.getStrategy(game.getCurrentPlayerIndex());
+                byStrategy.computeIfAbsent(strategy, s -> new ArrayList<>()).add(game);
+            }
+            pending.clear();
+
+            for (Map.Entry<Strategy, List<Game>> entry : byStrategy.entrySet()) {
+                List<Game> batch = entry.getValue();
+                if (batch.isEmpty()) continue;
+                entry.getKey().chooseMoves(batch, moves);
+                for (int i = 0; i < batch.size(); i++) {
+                    Game game = batch.get(i);
+                    game.submitMove(moves[i]);
+                    if (game.isAwaitingDecision()) {
+                        pending.add(game);
+                    }
+                }
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package gofish;
+
+// A card is packed into a single code, rank * 4 + suit, so the four cards of a
+// rank are adjacent. There are only 52 instances, shared by every game.
+public final class Card {
+    public static final String[] RANKS = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+    public static final String[] SUITS = {"Hearts", "Diamonds", "Clubs", "Spades"};
+    public static final int RANK_COUNT = RANKS.length;
+    public static final int SUIT_COUNT = SUITS.length;
+    public static final int DECK_SIZE = RANK_COUNT * SUIT_COUNT;
+
+    private static final Card[] CARDS = new Card[DECK_SIZE];
+
+    static {
+        for (int code = 0; code < DECK_SIZE; code++) {
+            CARDS[code] = new Card((byte) code);
+        }
+    }
+
+    private final byte code;
+
+    private Card(byte code) {
+        this.code = code;
+    }
+
+    public static Card of(int code) {
+        return CARDS[code];
+    }
+
+    public static Card of(String rank, String suit) {
+        int rankIndex = rankIndex(rank);
+        int suitIndex = suitIndex(suit);
+        if (rankIndex < 0 || suitIndex < 0) {
+            throw new IllegalArgumentException("Unknown card: " + rank + " of " + suit);
+        }
+        return CARDS[code(rankIndex, suitIndex)];
+    }
+
+    public static int code(int rankIndex, int suitIndex) {
+        return rankIndex * SUIT_COUNT + suitIndex;
+    }
+
+    // Returns -1 for anything that is not a rank
+    public static int rankIndex(String rank) {
+        return switch (rank) {
+            case "2" -> 0;
+            case "3" -> 1;
+            case "4" -> 2;
+            case "5" -> 3;
+            case "6" -> 4;
+            case "7" -> 5;
+            case "8" -> 6;
+            case "9" -> 7;
+            case "10" -> 8;
+            case "J" -> 9;
+            case "Q" -> 10;
+            case "K" -> 11;
+            case "A" -> 12;
+            default -> -1;
+        };
+    }
+
+    public static int suitIndex(String suit) {
+        return switch (suit) {
+            case "Hearts" -> 0;
+            case "Diamonds" -> 1;
+            case "Clubs" -> 2;
+            case "Spades" -> 3;
+            default -> -1;
+        };
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public int getRankIndex() {
+        return code / SUIT_COUNT;
+    }
+
+    public int getSuitIndex() {
+        return code % SUIT_COUNT;
+    }
+
+    public String getRank() {
+        return RANKS[getRankIndex()];
+    }
+
+    public String getSuit() {
+        return SUITS[getSuitIndex()];
+    }
+
+    @Override
+    public String toString() {
+        return getRank() + " of " + getSuit();
+    }
+}
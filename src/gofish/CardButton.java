@@ -0,0 +1,170 @@
+package gofish;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+public class CardButton extends JButton {
+    public static final int CARD_WIDTH = 100;
+    public static final int CARD_HEIGHT = 140;
+    private static final int CORNER_RADIUS = 12;
+    private final Card card;
+    private boolean isSelected;
+    private static final Color HEART_DIAMOND_COLOR = new Color(220, 0, 0);
+    private static final Color SPADE_CLUB_COLOR = Color.BLACK;
+    private static final Color SELECTED_COLOR = new Color(255, 255, 150);
+
+    // Faces are drawn once per card, selection state and device scale, then
+    // blitted. Only touched on the event thread.
+    private static final BufferedImage[] faceCache = new BufferedImage[Card.DECK_SIZE * 2];
+    private static double cachedScaleX;
+    private static double cachedScaleY;
+
+    private static final Font CORNER_RANK_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font CORNER_SUIT_FONT = new Font("Dialog", Font.PLAIN, 20);
+    private static final Font CENTER_FONT = new Font("Dialog", Font.BOLD, 32);
+    private static final Color SHADOW_COLOR = new Color(0, 0, 0, 50);
+    private static final BasicStroke BORDER_STROKE = new BasicStroke(1.5f);
+
+    public CardButton(Card card) {
+        this.card = card;
+        this.isSelected = false;
+        setPreferredSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
+        setMinimumSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
+        setMaximumSize(new Dimension(CARD_WIDTH, CARD_HEIGHT));
+        setContentAreaFilled(false);
+        setFocusPainted(false);
+        setBorderPainted(false);
+        setCursor(new Cursor(Cursor.HAND_CURSOR));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        AffineTransform transform = g2d.getTransform();
+
+        // Cached faces are drawn at the standard card size in device pixels,
+        // so they only apply to standard cards under a plain scale
+        boolean plainScale = transform.getShearX() == 0 && transform.getShearY() == 0;
+        if (!plainScale || getWidth() != CARD_WIDTH || getHeight() != CARD_HEIGHT) {
+            paintFace(g2d, card, isSelected, getWidth(), getHeight());
+            g2d.dispose();
+            return;
+        }
+
+        BufferedImage face = cachedFace(transform.getScaleX(), transform.getScaleY());
+        g2d.setTransform(AffineTransform.getTranslateInstance(transform.getTranslateX(), transform.getTranslateY()));
+        g2d.drawImage(face, 0, 0, null);
+        g2d.dispose();
+    }
+
+    private BufferedImage cachedFace(double scaleX, double scaleY) {
+        // A new scale (a window moved to another monitor, say) makes every
+        // cached face the wrong size
+        if (scaleX != cachedScaleX || scaleY != cachedScaleY) {
+            Arrays.fill(faceCache, null);
+            cachedScaleX = scaleX;
+            cachedScaleY = scaleY;
+        }
+
+        int index = card.getCode() * 2 + (isSelected ? 1 : 0);
+        BufferedImage face = faceCache[index];
+        if (face == null) {
+            face = new BufferedImage((int) Math.ceil(CARD_WIDTH * scaleX), (int) Math.ceil(CARD_HEIGHT * scaleY),
+                BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = face.createGraphics();
+            g2d.scale(scaleX, scaleY);
+            paintFace(g2d, card, isSelected, CARD_WIDTH, CARD_HEIGHT);
+            g2d.dispose();
+            faceCache[index] = face;
+        }
+        return face;
+    }
+
+    private static void paintFace(Graphics2D g2d, Card card, boolean selected, int width, int height) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        RoundRectangle2D.Float shape = new RoundRectangle2D.Float(3, 3, width - 4, height - 4, CORNER_RADIUS, CORNER_RADIUS);
+
+        // Draw card shadow
+        if (!selected) {
+            g2d.setColor(SHADOW_COLOR);
+            g2d.fill(shape);
+        }
+
+        // Draw card background
+        if (selected) {
+            g2d.setColor(SELECTED_COLOR);
+        } else {
+            g2d.setColor(Color.WHITE);
+        }
+        shape.setRoundRect(0, 0, width - 3, height - 3, CORNER_RADIUS, CORNER_RADIUS);
+        g2d.fill(shape);
+
+        // Draw card border
+        g2d.setColor(Color.BLACK);
+        g2d.setStroke(BORDER_STROKE);
+        g2d.draw(shape);
+
+        // Set color based on suit
+        Color cardColor = card.getSuit().equals("Hearts") || card.getSuit().equals("Diamonds") 
+            ? HEART_DIAMOND_COLOR : SPADE_CLUB_COLOR;
+        g2d.setColor(cardColor);
+
+        // Draw rank and suit
+        String rank = card.getRank();
+        String suitSymbol = getSuitSymbol(card.getSuit());
+
+        // Draw in top-left corner
+        g2d.setFont(CORNER_RANK_FONT);
+        g2d.drawString(rank, 8, 25);
+        g2d.setFont(CORNER_SUIT_FONT);
+        g2d.drawString(suitSymbol, 8, 45);
+
+        // Draw in center (larger)
+        g2d.setFont(CENTER_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+        String centerText = rank + suitSymbol;
+        int centerX = (width - fm.stringWidth(centerText)) / 2;
+        int centerY = (height + fm.getAscent()) / 2;
+        g2d.drawString(centerText, centerX, centerY);
+
+        // Draw in bottom-right corner (rotated 180 degrees)
+        g2d.translate(width - 3, height - 3);
+        g2d.rotate(Math.PI);
+        g2d.setFont(CORNER_RANK_FONT);
+        g2d.drawString(rank, 8, 25);
+        g2d.setFont(CORNER_SUIT_FONT);
+        g2d.drawString(suitSymbol, 8, 45);
+    }
+
+    private static String getSuitSymbol(String suit) {
+        return switch (suit) {
+            case "Hearts" -> "♥";
+            case "Diamonds" -> "♦";
+            case "Clubs" -> "♣";
+            case "Spades" -> "♠";
+            default -> suit;
+        };
+    }
+
+    @Override
+    public void setSelected(boolean selected) {
+        this.isSelected = selected;
+        repaint();
+    }
+
+    public Card getCard() {
+        return card;
+    }
+
+    @Override
+    public boolean contains(int x, int y) {
+        // Make the hit area slightly larger than the visible card
+        return new RoundRectangle2D.Float(-5, -5, getWidth() + 5, getHeight() + 5, CORNER_RADIUS, CORNER_RADIUS)
+            .contains(x, y);
+    }
+}
@@ -0,0 +1,48 @@
+package gofish;
+
+import java.util.*;
+
+public class Deck {
+    // Card codes in draw order; cards[top] is the next card to be drawn
+    private final byte[] cards;
+    private int top;
+
+    public Deck() {
+        this(new Random());
+    }
+
+    public Deck(Random random) {
+        cards = new byte[Card.DECK_SIZE];
+        for (int code = 0; code < cards.length; code++) {
+            cards[code] = (byte) code;
+        }
+
+        // Fisher-Yates, the same walk Collections.shuffle makes
+        for (int i = cards.length; i > 1; i--) {
+            int j = random.nextInt(i);
+            byte swap = cards[i - 1];
+            cards[i - 1] = cards[j];
+            cards[j] = swap;
+        }
+        top = 0;
+    }
+
+    // The undrawn cards of a saved game, in draw order; see GameSave
+    Deck(byte[] remainingCodes) {
+        cards = remainingCodes.clone();
+        top = 0;
+    }
+
+    public Card drawCard() {
+        return top < cards.length ? Card.of(cards[top++]) : null;
+    }
+
+    // Undrawn card codes in draw order
+    byte[] remainingCodes() {
+        return Arrays.copyOfRange(cards, top, cards.length);
+    }
+
+    public int size() {
+        return cards.length - top;
+    }
+}
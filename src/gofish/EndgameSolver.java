@@ -0,0 +1,462 @@
+package gofish;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Searches Go Fish once the deck is empty. From then on nothing is drawn, so
+// a seat that could see every hand would be playing a game of perfect
+// information, and a short one: a seat that hands over a rank can never get
+// it back (it may only ask for ranks it holds), so every ask that takes
+// cards brings the end closer. An ask that takes nothing just passes the
+// turn. Passing can be tactical, but a whole round of passes would repeat
+// the position forever, so the search leaves out the pass that would
+// complete one; that seat must ask someone holding one of its ranks, which
+// is always possible while cards remain.
+//
+// Every seat plays to make as many sets as it can (max^n). Values are the
+// sets each seat will still make, in 1/ONE_SET ths of a set, 12 bits per
+// seat in one long, which has room for five seats. Small endgames are searched to the end, which makes the
+// result exact; larger ones are searched by iterative deepening until a
+// node budget runs out, and a position at the depth limit credits each seat
+// with a quarter of a set for every card it holds.
+//
+// Positions are identified by Zobrist keys (a random key per seat and card,
+// per seat to move and per count of passes in a row), updated as moves are
+// made and taken back, and their values are kept in a TranspositionTable
+// that outlives a single search. A solver is not thread safe; keep one per
+// thread.
+//
+// Analysis: plays seeded all-AI games until the deck runs out, solves the
+// endgame with every hand visible and compares perfect play with how the
+// game really ended.
+//   EndgameSolver [games] [players] [seed] [nodeBudget]
+public final class EndgameSolver {
+    public static final int ONE_SET = 256;
+    public static final long DEFAULT_NODE_BUDGET = 200_000;
+    // 2^16 buckets of 64 bytes: 4 MB
+    public static final int DEFAULT_TABLE_BITS = 16;
+
+    private static final int VALUE_BITS = 12;
+    private static final int VALUE_MASK = (1 << VALUE_BITS) - 1;
+    private static final int CARD_VALUE = ONE_SET / Card.SUIT_COUNT;
+    // Table depth for results that reached the end of every line
+    private static final int EXACT = 63;
+    private static final int MAX_DEPTH = EXACT - 1;
+    // Marks a value whose search was cut off by the depth limit somewhere
+    private static final long INEXACT = 1L << 63;
+
+    private static final long[] CARD_KEYS = new long[Game.MAX_PLAYERS * Card.DECK_SIZE];
+    private static final long[] CURRENT_KEYS = new long[Game.MAX_PLAYERS];
+    private static final long[] PASS_KEYS = new long[Game.MAX_PLAYERS];
+
+    static {
+        // Fixed, so keys are the same in every run and every solver
+        SplittableRandom random = new SplittableRandom(0x60F15F15L);
+        Arrays.setAll(CARD_KEYS, i -> random.nextLong());
+        Arrays.setAll(CURRENT_KEYS, i -> random.nextLong());
+        Arrays.setAll(PASS_KEYS, i -> random.nextLong());
+    }
+
+    private final TranspositionTable table;
+    private final long[] hands = new long[Game.MAX_PLAYERS];
+    private int playerCount;
+    // Zobrist key of the hands alone; seat to move and passes are added per
+    // lookup
+    private long handKey;
+    // Ranks still in play times ONE_SET: what every seat's values add up to
+    private int remainingValue;
+    private long nodes;
+    private long nodeLimit;
+    private boolean aborted;
+    private int depthReached;
+
+    public EndgameSolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    public EndgameSolver(int tableBits) {
+        table = new TranspositionTable(tableBits);
+    }
+
+    public static final class Result {
+        private final Move bestMove;
+        private final boolean pass;
+        private final double[] expectedSets;
+        private final boolean exact;
+        private final int depth;
+        private final long nodes;
+
+        Result(Move bestMove, boolean pass, double[] expectedSets, boolean exact, int depth, long nodes) {
+            this.bestMove = bestMove;
+            this.pass = pass;
+            this.expectedSets = expectedSets;
+            this.exact = exact;
+            this.depth = depth;
+            this.nodes = nodes;
+        }
+
+        // Null once the game is over
+        public Move getBestMove() {
+            return bestMove;
+        }
+
+        // The best move takes nothing; any ask of a seat without the rank
+        // does as well
+        public boolean isPass() {
+            return pass;
+        }
+
+        // Sets the seat ends the game with, its score so far included
+        public double getExpectedSets(int seat) {
+            return expectedSets[seat];
+        }
+
+        // True when every line was searched to the end of the game
+        public boolean isExact() {
+            return exact;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+    }
+
+    // Perfect play from state, every hand visible, for the seat to move
+    public Result solve(GameState state) {
+        return solve(state, DEFAULT_NODE_BUDGET);
+    }
+
+    public Result solve(GameState state, long nodeBudget) {
+        load(state);
+        int playerCount = state.getPlayerCount();
+        double[] expectedSets = new double[playerCount];
+        for (int seat = 0; seat < playerCount; seat++) {
+            expectedSets[seat] = state.getScore(seat);
+        }
+        int current = state.getCurrent();
+        if (state.isOver()) {
+            return new Result(null, false, expectedSets, true, 0, 0);
+        }
+
+        Move[] moves = new Move[Card.RANK_COUNT * Game.MAX_PLAYERS];
+        int count = 0;
+        for (long remaining = hands[current]; remaining != 0; ) {
+            int rankIndex = Long.numberOfTrailingZeros(remaining) / Card.SUIT_COUNT;
+            remaining &= ~Player.rankMask(rankIndex);
+            for (int target = 0; target < playerCount; target++) {
+                if (target != current && hands[target] != 0) {
+                    moves[count++] = Move.of(rankIndex, target);
+                }
+            }
+        }
+
+        if (count == 0) {
+            return new Result(null, false, expectedSets, true, 0, 0);
+        }
+
+        long[] values = new long[count];
+        boolean exact = searchMoves(current, moves, count, values, nodeBudget);
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (value(values[i], current) > value(values[best], current)) {
+                best = i;
+            }
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            expectedSets[seat] += (double) value(values[best], seat) / ONE_SET;
+        }
+        boolean pass = (hands[moves[best].getTarget()] & Player.rankMask(moves[best].getRankIndex())) == 0;
+        return new Result(moves[best], pass, expectedSets, exact, depthReached, nodes);
+    }
+
+    // Sets the seat to move can still expect after each of moves, in
+    // sets[i]; moves of seats without the rank are passes. For strategies
+    // that average over possible deals; see EndgameStrategy.
+    public void evaluateMoves(GameState state, Move[] moves, int count, long nodeBudget, double[] sets) {
+        load(state);
+        long[] values = new long[count];
+        searchMoves(state.getCurrent(), moves, count, values, nodeBudget);
+        for (int i = 0; i < count; i++) {
+            sets[i] = (double) value(values[i], state.getCurrent()) / ONE_SET;
+        }
+    }
+
+    // Entries stored and found over the solver's life
+    public long getTableProbes() {
+        return table.getProbes();
+    }
+
+    public long getTableHits() {
+        return table.getHits();
+    }
+
+    private void load(GameState state) {
+        if (state.getDeckSize() != 0) {
+            throw new IllegalArgumentException("The endgame starts once the deck is empty: "
+                + state.getDeckSize() + " cards left");
+        }
+        if (state.getPlayerCount() > Game.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Endgames are solved for at most " + Game.MAX_PLAYERS + " players");
+        }
+        playerCount = state.getPlayerCount();
+        handKey = 0;
+        long held = 0;
+        for (int seat = 0; seat < playerCount; seat++) {
+            hands[seat] = state.getHand(seat);
+            held |= hands[seat];
+            for (long cards = hands[seat]; cards != 0; cards &= cards - 1) {
+                handKey ^= cardKey(seat, Long.numberOfTrailingZeros(cards));
+            }
+        }
+        remainingValue = 0;
+        for (int rankIndex = 0; rankIndex < Card.RANK_COUNT; rankIndex++) {
+            if ((held & Player.rankMask(rankIndex)) != 0) {
+                remainingValue += ONE_SET;
+            }
+        }
+    }
+
+    // Fills values with each move's packed values, deepening one ply at a
+    // time until they are exact or the budget runs out. A deepening cut
+    // short keeps the values of the one before. Returns whether the values
+    // are exact.
+    private boolean searchMoves(int current, Move[] moves, int count, long[] values, long nodeBudget) {
+        table.newSearch();
+        nodes = 0;
+        nodeLimit = nodeBudget;
+        aborted = false;
+        long[] deepened = new long[count];
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            boolean exact = true;
+            for (int i = 0; i < count; i++) {
+                int rankIndex = moves[i].getRankIndex();
+                int target = moves[i].getTarget();
+                // Every move's value is wanted, so the root prunes nothing
+                deepened[i] = (hands[target] & Player.rankMask(rankIndex)) != 0
+                    ? ask(current, rankIndex, target, depth, Integer.MAX_VALUE)
+                    : pass(current, 0, depth, Integer.MAX_VALUE);
+                exact &= deepened[i] >= 0;
+            }
+            if (aborted && depth > 1) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                values[i] = deepened[i] & ~INEXACT;
+            }
+            depthReached = depth;
+            if (exact || aborted) {
+                return exact;
+            }
+        }
+        return false;
+    }
+
+    // Values of the position for every seat. The search can stop early (and
+    // then returns a partial best) once the seat to move has limit: the
+    // values always add up to remainingValue, so the seat before it, whose
+    // best so far set the limit, can then do no better here. This is max^n
+    // shallow pruning; a position cut short is not stored.
+    private long search(int current, int passes, int depth, int limit) {
+        // Most calls land on the depth limit, where scoring the hands is
+        // cheaper than the cache miss of a table probe
+        if (depth == 0 || aborted) {
+            return evaluate() | INEXACT;
+        }
+        long key = handKey ^ CURRENT_KEYS[current] ^ PASS_KEYS[passes];
+        long entry = table.probe(key);
+        if (TranspositionTable.found(entry) && TranspositionTable.depth(entry) >= depth) {
+            long values = TranspositionTable.values(entry);
+            return TranspositionTable.depth(entry) == EXACT ? values : values | INEXACT;
+        }
+        if (++nodes > nodeLimit) {
+            aborted = true;
+        }
+
+        int active = 0;
+        for (int seat = 0; seat < playerCount; seat++) {
+            if (hands[seat] != 0) active++;
+        }
+        long best = 0;
+        int bestValue = -1;
+        boolean inexact = false;
+        boolean canPass = false;
+        for (long remaining = hands[current]; remaining != 0 && bestValue < limit; ) {
+            int rankIndex = Long.numberOfTrailingZeros(remaining) / Card.SUIT_COUNT;
+            long rank = Player.rankMask(rankIndex);
+            remaining &= ~rank;
+            for (int target = 0; target < playerCount && bestValue < limit; target++) {
+                if (target == current || hands[target] == 0) continue;
+                if ((hands[target] & rank) == 0) {
+                    canPass = true;
+                    continue;
+                }
+                long values = ask(current, rankIndex, target, depth, remainingValue - bestValue);
+                inexact |= values < 0;
+                if (value(values, current) > bestValue) {
+                    bestValue = value(values, current);
+                    best = values;
+                }
+            }
+        }
+        if (canPass && passes + 1 < active && bestValue < limit) {
+            long values = pass(current, passes, depth, remainingValue - bestValue);
+            inexact |= values < 0;
+            if (value(values, current) > bestValue) {
+                bestValue = value(values, current);
+                best = values;
+            }
+        }
+
+        best &= ~INEXACT;
+        // Values found after the budget ran out are rough and not kept
+        if (!aborted && bestValue < limit) {
+            table.store(key, best, inexact ? depth : EXACT);
+        }
+        return inexact ? best | INEXACT : best;
+    }
+
+    // The current seat takes every card of the rank from target, which holds
+    // at least one. A completed set leaves the remaining value but moves
+    // into the current seat's values here, so the next seat's limit is the
+    // same as for a pass.
+    private long ask(int current, int rankIndex, int target, int depth, int limit) {
+        long rank = Player.rankMask(rankIndex);
+        long currentHand = hands[current];
+        long targetHand = hands[target];
+        long savedKey = handKey;
+
+        long taken = targetHand & rank;
+        for (long cards = taken; cards != 0; cards &= cards - 1) {
+            int code = Long.numberOfTrailingZeros(cards);
+            handKey ^= cardKey(target, code) ^ cardKey(current, code);
+        }
+        hands[target] = targetHand & ~taken;
+        hands[current] = currentHand | taken;
+        long gained = 0;
+        if ((hands[current] & rank) == rank) {
+            for (long cards = rank; cards != 0; cards &= cards - 1) {
+                handKey ^= cardKey(current, Long.numberOfTrailingZeros(cards));
+            }
+            hands[current] &= ~rank;
+            gained = (long) ONE_SET << current * VALUE_BITS;
+            remainingValue -= ONE_SET;
+        }
+
+        int next = nextSeat(current);
+        long values = next < 0 ? 0 : search(next, 0, depth - 1, limit);
+
+        hands[current] = currentHand;
+        hands[target] = targetHand;
+        handKey = savedKey;
+        if (gained != 0) {
+            remainingValue += ONE_SET;
+        }
+        return values + gained;
+    }
+
+    private long pass(int current, int passes, int depth, int limit) {
+        return search(nextSeat(current), passes + 1, depth - 1, limit);
+    }
+
+    // The next seat still holding cards, or -1 when nobody does
+    private int nextSeat(int current) {
+        for (int i = 1; i <= playerCount; i++) {
+            int seat = (current + i) % playerCount;
+            if (hands[seat] != 0) return seat;
+        }
+        return -1;
+    }
+
+    private long evaluate() {
+        long values = 0;
+        for (int seat = 0; seat < playerCount; seat++) {
+            values |= (long) (Long.bitCount(hands[seat]) * CARD_VALUE) << seat * VALUE_BITS;
+        }
+        return values;
+    }
+
+    private static int value(long values, int seat) {
+        return (int) (values >>> seat * VALUE_BITS) & VALUE_MASK;
+    }
+
+    private static long cardKey(int seat, int code) {
+        return CARD_KEYS[seat * Card.DECK_SIZE + code];
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        long nodeBudget = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_NODE_BUDGET;
+        if (players < 2 || players > Game.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Player count must be between 2 and " + Game.MAX_PLAYERS);
+        }
+
+        String[] names = Arrays.copyOf(new String[] {"AI-Alice", "AI-Bob", "AI-Charlie", "AI-Dave"}, players);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        EndgameSolver solver = new EndgameSolver();
+        int solved = 0;
+        int exact = 0;
+        int shortfalls = 0;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < games; i++) {
+            Game game = new Game(names, new boolean[players], false, seeds.nextLong());
+            for (int seat = 0; seat < players; seat++) {
+                game.setStrategy(seat, Strategies.MEMORY);
+            }
+            game.setDeferDecisions(true);
+            game.play();
+            Result result = null;
+            int seatToMove = -1;
+            int cardsLeft = 0;
+            while (game.isAwaitingDecision()) {
+                int current = game.getCurrentPlayerIndex();
+                if (result == null && game.getDeckSize() == 0) {
+                    GameState state = game.snapshot();
+                    for (int seat = 0; seat < players; seat++) {
+                        cardsLeft += Long.bitCount(state.getHand(seat));
+                    }
+                    long start = System.nanoTime();
+                    result = solver.solve(state, nodeBudget);
+                    totalNanos += System.nanoTime() - start;
+                    totalNodes += result.getNodes();
+                    seatToMove = current;
+                }
+                game.submitMove(game.getStrategy(current).chooseMove(game, current));
+            }
+            if (result == null) {
+                System.out.printf("game %d: over before the deck ran out%n", i);
+                continue;
+            }
+
+            solved++;
+            if (result.isExact()) exact++;
+            List<Player> seated = game.getPlayers();
+            StringBuilder perfect = new StringBuilder();
+            StringBuilder played = new StringBuilder();
+            for (int seat = 0; seat < players; seat++) {
+                perfect.append(String.format(" %5.2f", result.getExpectedSets(seat)));
+                played.append(String.format(" %5d", game.getScores().get(seated.get(seat))));
+            }
+            if (game.getScores().get(seated.get(seatToMove)) < result.getExpectedSets(seatToMove) - 1e-9) {
+                shortfalls++;
+            }
+            System.out.printf("game %d: %2d cards, seat %d to move, best %s%n  perfect%s  %s, depth %d, %d nodes%n"
+                    + "  played %s%n",
+                i, cardsLeft, seatToMove, result.isPass() ? "a pass" : result.getBestMove(), perfect,
+                result.isExact() ? "exact" : "estimate", result.getDepth(), result.getNodes(), played);
+        }
+
+        System.out.printf("%d endgames, %d solved exactly, seat to move fell short of perfect play in %d%n",
+            solved, exact, shortfalls);
+        System.out.printf("%.0f nodes and %.2f ms per endgame, table hit rate %.1f%% of %d slots%n",
+            (double) totalNodes / Math.max(1, solved), totalNanos / 1e6 / Math.max(1, solved),
+            100.0 * solver.getTableHits() / Math.max(1, solver.getTableProbes()), solver.table.getCapacity());
+    }
+}
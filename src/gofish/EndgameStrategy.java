@@ -0,0 +1,115 @@
+package gofish;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Plays the endgame with EndgameSolver. Until the deck runs out it plays
+// like MemoryAI. After that, the only cards it cannot see are in the other
+// hands, so it deals them out a few times in ways consistent with
+// RankKnowledge (as MonteCarloStrategy does), solves every candidate ask in
+// each deal, and makes the ask that gives it the most sets on average.
+// Small endgames are solved exactly; the node budget per deal caps the
+// cost of the rest.
+//
+// Each deal is solved as if every seat could see every hand, which
+// flatters the opponents, so the solver only overrides the opening
+// strategy's ask when it expects clearly more from another one.
+public final class EndgameStrategy implements Strategy {
+    public static final int DEFAULT_DEALS = 8;
+    public static final long DEFAULT_NODE_BUDGET = 50_000;
+    private static final int MAX_REDEALS = 8;
+    // Sets per deal another ask must gain over the opening strategy's
+    private static final double OVERRIDE_MARGIN = 0.5;
+
+    private final Strategy opening;
+    private final int deals;
+    private final long nodeBudget;
+    // A solver and its table per thread, kept from one decision to the next
+    private final ThreadLocal<EndgameSolver> solvers = ThreadLocal.withInitial(EndgameSolver::new);
+
+    public EndgameStrategy() {
+        this(new MemoryAI(), DEFAULT_DEALS, DEFAULT_NODE_BUDGET);
+    }
+
+    public EndgameStrategy(Strategy opening, int deals, long nodeBudget) {
+        if (deals < 1) {
+            throw new IllegalArgumentException("Need at least one deal: " + deals);
+        }
+        this.opening = opening;
+        this.deals = deals;
+        this.nodeBudget = nodeBudget;
+    }
+
+    @Override
+    public String getName() {
+        return "endgame";
+    }
+
+    @Override
+    public Move chooseMove(Game game, int seat) {
+        List<Player> players = game.getPlayers();
+        if (game.getDeckSize() > 0) {
+            return opening.chooseMove(game, seat);
+        }
+
+        Move[] candidates = new Move[Card.RANK_COUNT * players.size()];
+        int candidateCount = 0;
+        for (long remaining = players.get(seat).getHandBits(); remaining != 0; ) {
+            int rankIndex = Long.numberOfTrailingZeros(remaining) / Card.SUIT_COUNT;
+            remaining &= ~Player.rankMask(rankIndex);
+            for (int target = 0; target < players.size(); target++) {
+                if (target != seat && players.get(target).hasCards()) {
+                    candidates[candidateCount++] = Move.of(rankIndex, target);
+                }
+            }
+        }
+        if (candidateCount <= 1) {
+            return candidateCount == 0 ? null : candidates[0];
+        }
+
+        MonteCarloStrategy.View view = new MonteCarloStrategy.View(game, seat);
+        SplittableRandom random = new SplittableRandom(game.getRandom().nextLong());
+        GameState state = new GameState(players.size());
+        byte[] pool = new byte[Card.DECK_SIZE];
+        byte[] deck = new byte[Card.DECK_SIZE];
+        double[] sets = new double[candidateCount];
+        double[] totals = new double[candidateCount];
+        EndgameSolver solver = solvers.get();
+        for (int deal = 0; deal < deals; deal++) {
+            view.determinize(state, pool, deck, random);
+            for (int redeal = 1; redeal < MAX_REDEALS && state.hasUnscoredSet(); redeal++) {
+                view.determinize(state, pool, deck, random);
+            }
+            state.scoreCompleteSets();
+            solver.evaluateMoves(state, candidates, candidateCount, nodeBudget, sets);
+            for (int i = 0; i < candidateCount; i++) {
+                totals[i] += sets[i];
+            }
+        }
+
+        // The opening strategy's move stands unless another is clearly
+        // better. If it picked no candidate at all, the best one stands.
+        Move preferred = opening.chooseMove(game, seat);
+        int best = -1;
+        for (int i = 0; i < candidateCount; i++) {
+            if (candidates[i] == preferred) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            best = 0;
+            for (int i = 1; i < candidateCount; i++) {
+                if (totals[i] > totals[best]) {
+                    best = i;
+                }
+            }
+        }
+        double bar = totals[best] + OVERRIDE_MARGIN * deals;
+        for (int i = 0; i < candidateCount; i++) {
+            if (totals[i] > bar && totals[i] > totals[best]) {
+                best = i;
+            }
+        }
+        return candidates[best];
+    }
+}
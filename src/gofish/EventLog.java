@@ -0,0 +1,214 @@
+package gofish;
+
+import java.util.Arrays;
+
+// Compact record of everything that happened in a game. Each event is two
+// bytes: the type and the acting player in the first, a card code or
+// player/rank pair in the second. Replaying a log rebuilds hands and scores
+// without running any game logic or AI.
+public final class EventLog {
+    public static final int DEAL = 0;
+    public static final int ASK = 1;
+    public static final int GIVE = 2;
+    public static final int DRAW = 3;
+    public static final int SET = 4;
+
+    private static final int EVENT_BYTES = 2;
+
+    private byte[] events;
+    private int length;
+
+    public EventLog() {
+        events = new byte[512];
+    }
+
+    private EventLog(byte[] events) {
+        this.events = events;
+        this.length = events.length;
+    }
+
+    public static EventLog fromBytes(byte[] bytes) {
+        if (bytes.length % EVENT_BYTES != 0) {
+            throw new IllegalArgumentException("Truncated event log: " + bytes.length + " bytes");
+        }
+        return new EventLog(bytes.clone());
+    }
+
+    void deal(int player, Card card) {
+        append(DEAL, player, card.getCode());
+    }
+
+    void ask(int player, int target, int rankIndex) {
+        append(ASK, player, target << 4 | rankIndex);
+    }
+
+    // The rank given is the one in the ASK event just before this one
+    void give(int player, int from, long cards) {
+        int rankIndex = Long.numberOfTrailingZeros(cards) / Card.SUIT_COUNT;
+        int suits = (int) (cards >>> (rankIndex * Card.SUIT_COUNT)) & 0xF;
+        append(GIVE, player, from << 4 | suits);
+    }
+
+    void draw(int player, Card card) {
+        append(DRAW, player, card.getCode());
+    }
+
+    void set(int player, int rankIndex) {
+        append(SET, player, rankIndex);
+    }
+
+    private void append(int type, int player, int data) {
+        if (length == events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        events[length++] = (byte) (type << 4 | player);
+        events[length++] = (byte) data;
+    }
+
+    // Forgets every event after the first size, so a benchmark can reuse one
+    // game without its log growing
+    void truncate(int size) {
+        if (size < 0 || size > size()) {
+            throw new IllegalArgumentException("Cannot truncate a log of " + size() + " events to " + size);
+        }
+        length = size * EVENT_BYTES;
+    }
+
+    public int size() {
+        return length / EVENT_BYTES;
+    }
+
+    public int getType(int event) {
+        return (events[event * EVENT_BYTES] & 0xFF) >>> 4;
+    }
+
+    public int getPlayer(int event) {
+        return events[event * EVENT_BYTES] & 0xF;
+    }
+
+    public int getData(int event) {
+        return events[event * EVENT_BYTES + 1] & 0xFF;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(events, length);
+    }
+
+    // True when both logs describe exactly the same game
+    public boolean matches(EventLog other) {
+        return Arrays.equals(events, 0, length, other.events, 0, other.length);
+    }
+
+    public interface Visitor {
+        void deal(int player, int cardCode);
+
+        void ask(int player, int target, int rankIndex);
+
+        void give(int player, int from, long cards);
+
+        void draw(int player, int cardCode);
+
+        void set(int player, int rankIndex);
+    }
+
+    public void replay(Visitor visitor) {
+        int askedRank = -1;
+        for (int i = 0; i < length; i += EVENT_BYTES) {
+            int type = (events[i] & 0xFF) >>> 4;
+            int player = events[i] & 0xF;
+            int data = events[i + 1] & 0xFF;
+            switch (type) {
+                case DEAL -> visitor.deal(player, data);
+                case ASK -> {
+                    askedRank = data & 0xF;
+                    visitor.ask(player, data >>> 4, askedRank);
+                }
+                case GIVE -> {
+                    if (askedRank < 0) {
+                        throw new IllegalStateException("GIVE without ASK at event " + i / EVENT_BYTES);
+                    }
+                    long cards = (long) (data & 0xF) << (askedRank * Card.SUIT_COUNT);
+                    visitor.give(player, data >>> 4, cards);
+                }
+                case DRAW -> visitor.draw(player, data);
+                case SET -> visitor.set(player, data);
+                default -> throw new IllegalStateException("Unknown event type " + type + " at event " + i / EVENT_BYTES);
+            }
+        }
+    }
+
+    // Rebuilds the final scores, checking along the way that every event is
+    // possible given the hands so far
+    public int[] replayScores(int playerCount) {
+        long[] hands = new long[playerCount];
+        int[] scores = new int[playerCount];
+
+        replay(new Visitor() {
+            private long dealt;
+
+            @Override
+            public void deal(int player, int cardCode) {
+                take(player, cardCode);
+            }
+
+            @Override
+            public void ask(int player, int target, int rankIndex) {
+                checkSeat(player);
+                checkSeat(target);
+                if (rankIndex >= Card.RANK_COUNT || (hands[player] & Player.rankMask(rankIndex)) == 0) {
+                    throw new IllegalStateException("Player " + player + " asked for a rank they do not hold");
+                }
+            }
+
+            @Override
+            public void give(int player, int from, long cards) {
+                checkSeat(player);
+                checkSeat(from);
+                if ((hands[from] & cards) != cards) {
+                    throw new IllegalStateException("Player " + from + " gave cards they do not hold");
+                }
+                hands[from] &= ~cards;
+                hands[player] |= cards;
+            }
+
+            @Override
+            public void draw(int player, int cardCode) {
+                take(player, cardCode);
+            }
+
+            @Override
+            public void set(int player, int rankIndex) {
+                checkSeat(player);
+                if (rankIndex >= Card.RANK_COUNT) {
+                    throw new IllegalStateException("No such rank: " + rankIndex);
+                }
+                long rank = Player.rankMask(rankIndex);
+                if ((hands[player] & rank) != rank) {
+                    throw new IllegalStateException("Player " + player + " scored an incomplete set");
+                }
+                hands[player] &= ~rank;
+                scores[player]++;
+            }
+
+            private void take(int player, int cardCode) {
+                checkSeat(player);
+                if (cardCode >= Card.DECK_SIZE) {
+                    throw new IllegalStateException("No such card: " + cardCode);
+                }
+                long card = 1L << cardCode;
+                if ((dealt & card) != 0) {
+                    throw new IllegalStateException("Card " + Card.of(cardCode) + " came out of the deck twice");
+                }
+                dealt |= card;
+                hands[player] |= card;
+            }
+
+            private void checkSeat(int seat) {
+                if (seat >= playerCount) {
+                    throw new IllegalStateException("No seat " + seat + " at a table of " + playerCount);
+                }
+            }
+        });
+        return scores;
+    }
+}
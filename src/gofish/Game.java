@@ -0,0 +1,727 @@
+package gofish;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Every change to a game (play, moves, continuing, hand-overs) is a command
+// on a per-game queue, and only one thread runs commands at a time: the
+// caller that finds the queue idle runs its own command, then any that other
+// threads queued meanwhile, then lets go. Nobody blocks on a lock, and when a
+// single thread drives the game (the GUI, a server loop, a tournament worker)
+// each command has run by the time the call returns. With several threads
+// driving one game a call can return before its command runs, so they should
+// read the game through GameSnapshots rather than the getters.
+//
+// A command that throws does not hold up the ones queued behind it. If it
+// was the caller's own, the exception reaches the caller once the queue is
+// drained; otherwise it goes to the command's future, if it has one, or to
+// the listener.
+//
+// The getters and setters below read and configure the live game. They are
+// for whoever runs the commands, such as strategies and listeners, and for
+// setting the game up before play.
+public class Game {
+    // Seats the engine supports; Move, the server and saves are sized to it
+    public static final int MAX_PLAYERS = 4;
+
+    private List<Player> players;
+    private Deck deck;
+    private int currentPlayerIndex;
+    // Volatile so a publisher created from another thread as the game ends
+    // is still completed; see events()
+    private volatile boolean gameEnded;
+    private Map<Player, Integer> scores;
+    private boolean[] isHuman;
+    private boolean demoMode;
+    private int roundsPlayed;
+    private static final int DEMO_MODE_ROUNDS = 3;
+    private GameListener listener;
+    private boolean waitingForHumanInput;
+    private String lastAskedRank;
+    private Player lastTargetPlayer;
+    private final long seed;
+    private final GameRandom random;
+    private final EventLog eventLog;
+    private final RankKnowledge knowledge;
+    private final Strategy[] strategies;
+    private boolean deferDecisions;
+    private boolean awaitingDecision;
+
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile GameSnapshot latestSnapshot;
+    private volatile GameEventPublisher events;
+
+    public Game(String[] playerNames, boolean[] isHuman, boolean demoMode) {
+        this(playerNames, isHuman, demoMode, new Random().nextLong());
+    }
+
+    // The seed fixes the shuffle and every AI choice, so together with the
+    // event log (which also captures human moves) a game can be reproduced
+    public Game(String[] playerNames, boolean[] isHuman, boolean demoMode, long seed) {
+        this(playerNames, isHuman, demoMode, seed, new EventLog());
+        deck = new Deck(random);
+        dealCards();
+        latestSnapshot = takeSnapshot();
+    }
+
+    // A game part way through, as GameSave stored it: the position, the
+    // undrawn cards and the random state pick up exactly where the saved game
+    // was, and rank knowledge is rebuilt from the event log. Carry on with
+    // resume().
+    Game(GameSnapshot position, boolean[] isHuman, boolean demoMode, int roundsPlayed, long seed,
+         long randomState, byte[] deckCodes, EventLog eventLog) {
+        this(names(position), isHuman, demoMode, seed, eventLog);
+        random.setState(randomState);
+        deck = new Deck(deckCodes);
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            player.addCards(position.getHand(seat));
+            player.setLastAddedCard(position.getLastAddedCard(seat));
+            scores.put(player, position.getScore(seat));
+        }
+        this.roundsPlayed = roundsPlayed;
+        currentPlayerIndex = position.getCurrentPlayer();
+        lastAskedRank = position.getLastAskedRank();
+        lastTargetPlayer = position.getLastTarget() < 0 ? null : players.get(position.getLastTarget());
+        gameEnded = position.isGameEnded();
+        eventLog.replay(knowledge);
+        latestSnapshot = takeSnapshot();
+    }
+
+    private Game(String[] playerNames, boolean[] isHuman, boolean demoMode, long seed, EventLog eventLog) {
+        if (playerNames.length < 2 || playerNames.length > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Games take 2 to " + MAX_PLAYERS + " players: " + playerNames.length);
+        }
+        if (isHuman.length != playerNames.length) {
+            throw new IllegalArgumentException("Expected " + playerNames.length + " human flags: " + isHuman.length);
+        }
+        this.seed = seed;
+        this.random = new GameRandom(seed);
+        this.eventLog = eventLog;
+        this.knowledge = new RankKnowledge(playerNames.length);
+        this.strategies = new Strategy[playerNames.length];
+        Arrays.fill(strategies, Strategies.SIMPLE);
+        this.isHuman = isHuman.clone();
+        this.demoMode = demoMode;
+        this.roundsPlayed = 0;
+        this.waitingForHumanInput = false;
+        players = new ArrayList<>();
+        scores = new HashMap<>();
+        currentPlayerIndex = 0;
+        gameEnded = false;
+
+        for (String name : playerNames) {
+            Player player = new Player(name);
+            players.add(player);
+            scores.put(player, 0);
+        }
+    }
+
+    private static String[] names(GameSnapshot position) {
+        String[] names = new String[position.getPlayerCount()];
+        for (int seat = 0; seat < names.length; seat++) {
+            names[seat] = position.getName(seat);
+        }
+        return names;
+    }
+
+    public void setListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+    // AI seats play SimpleStrategy unless given another strategy
+    public void setStrategy(int seat, Strategy strategy) {
+        strategies[seat] = strategy;
+    }
+
+    public Strategy getStrategy(int seat) {
+        return strategies[seat];
+    }
+
+    // When set, the turn loop stops at every AI decision instead of asking
+    // the seat's strategy itself. The caller decides, usually for a whole
+    // batch of games at once, and hands the move back through submitMove.
+    // See BatchRunner.
+    public void setDeferDecisions(boolean deferDecisions) {
+        this.deferDecisions = deferDecisions;
+    }
+
+    public boolean isAwaitingDecision() {
+        return awaitingDecision;
+    }
+
+    private void dealCards() {
+        for (int i = 0; i < 5; i++) {
+            for (int seat = 0; seat < players.size(); seat++) {
+                Player player = players.get(seat);
+                Card card = deck.drawCard();
+                player.addCard(card);
+                eventLog.deal(seat, card);
+                knowledge.deal(seat, card.getCode());
+                checkAndScoreSet(player, card.getRankIndex());
+            }
+        }
+    }
+
+    // Called whenever cards of a rank land in a player's hand. Only that rank
+    // can have just reached four, so there is no need to look at the rest of
+    // the hand. The count comes straight from the player's card mask, so it
+    // can never drift from the cards actually held.
+    void checkAndScoreSet(Player player, int rankIndex) {
+        if (player.getRankCount(rankIndex) == Card.SUIT_COUNT) {
+            scores.put(player, scores.get(player) + 1);
+            player.takeRank(rankIndex);
+            int seat = players.indexOf(player);
+            eventLog.set(seat, rankIndex);
+            knowledge.set(seat, rankIndex);
+            if (isPublishing()) events.publish(new GameEvent.SetCompleted(seat, rankIndex));
+            if (isLogging()) {
+                logMessage(player.getName() + " completed a set of " + Card.RANKS[rankIndex] + "s!");
+            }
+        }
+    }
+
+    public void play() {
+        execute(() -> {
+            logMessage("Game has started!" + (demoMode ? " (Demo Mode - 3 rounds only)" : ""));
+            runTurns();
+        });
+    }
+
+    // Carries on a game restored by GameSave. Saves are only taken between
+    // commands, so the current seat's turn simply starts over: a human seat
+    // waits for its move again and an AI seat plays.
+    public void resume() {
+        execute(() -> {
+            if (gameEnded) {
+                notifyState();
+                return;
+            }
+            logMessage("Game resumed" + (demoMode ? " (Demo Mode - round " + (roundsPlayed + 1) + " of 3)" : ""));
+            runTurns();
+        });
+    }
+
+    // The whole game in GameSave's format, taken once the commands queued
+    // before this one have run. Encoding takes microseconds; writing it out
+    // is left to the caller, usually a GameSave.Autosaver.
+    public CompletableFuture<byte[]> save() {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                result.complete(GameSave.encode(this, takeSnapshot()));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // Typed events for everything that happens from now on, delivered off
+    // the game's thread; see GameEventPublisher. Until somebody subscribes,
+    // the game builds no events at all.
+    public GameEventPublisher events() {
+        GameEventPublisher publisher = events;
+        if (publisher == null) {
+            synchronized (this) {
+                publisher = events;
+                if (publisher == null) {
+                    publisher = new GameEventPublisher();
+                    events = publisher;
+                }
+            }
+            // endGame sets gameEnded before it looks for a publisher, so one
+            // of the two sees the other
+            if (gameEnded) {
+                publisher.complete();
+            }
+        }
+        return publisher;
+    }
+
+    private boolean isPublishing() {
+        GameEventPublisher publisher = events;
+        return publisher != null && publisher.hasSubscribers();
+    }
+
+    // Newest state as of the last finished batch of commands; safe from any
+    // thread
+    public GameSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    private void execute(Runnable command) {
+        commands.add(command);
+        RuntimeException failure = null;
+        // Re-checked after letting go, in case a command was queued between
+        // the last poll and the release
+        while (!commands.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                for (Runnable next; (next = commands.poll()) != null; ) {
+                    try {
+                        next.run();
+                    } catch (RuntimeException e) {
+                        if (next == command) {
+                            failure = e;
+                        } else {
+                            commandFailed(e);
+                        }
+                    }
+                }
+            } finally {
+                latestSnapshot = takeSnapshot();
+                draining.set(false);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // A command queued by another thread failed while this one drained
+    private void commandFailed(RuntimeException e) {
+        if (listener != null) {
+            listener.commandFailed(e);
+        } else {
+            System.err.println("Game command failed: " + e);
+        }
+    }
+
+    // Drives the game one turn at a time until it ends or a human seat has to
+    // choose a move. Turns return here instead of calling the next turn, so a
+    // whole game runs at constant stack depth.
+    private void runTurns() {
+        // One clock read per turn: the end of each turn starts the next
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        while (!gameEnded && !waitingForHumanInput && !awaitingDecision) {
+            playTurn();
+            if (!waitingForHumanInput && !awaitingDecision) {
+                advanceTurn();
+                // Turns that stop for a human or a deferred decision are
+                // left out, as they mostly measure how long the wait was
+                if (Metrics.ENABLED) start = Metrics.recordTurn(start);
+            }
+        }
+    }
+
+    private void playTurn() {
+        Player currentPlayer = players.get(currentPlayerIndex);
+        if (isLogging()) {
+            logMessage("\n=== " + currentPlayer.getName() + "'s turn ===");
+        }
+        if (isPublishing()) events.publish(new GameEvent.TurnStarted(currentPlayerIndex));
+        
+        if (!currentPlayer.hasCards() && deck.size() > 0) {
+            Card drawnCard = deck.drawCard();
+            currentPlayer.addCard(drawnCard);
+            eventLog.draw(currentPlayerIndex, drawnCard);
+            knowledge.draw(currentPlayerIndex, drawnCard.getCode());
+            if (isPublishing()) events.publish(new GameEvent.CardDrawn(currentPlayerIndex, drawnCard.getCode()));
+            if (isLogging()) {
+                logMessage(currentPlayer.getName() + " drew a card" + 
+                    (isHuman[currentPlayerIndex] ? ": " + drawnCard : ""));
+            }
+            checkAndScoreSet(currentPlayer, drawnCard.getRankIndex());
+        }
+
+        // Update GUI with current game state
+        notifyState();
+        
+        if (currentPlayer.hasCards()) {
+            if (isHuman[currentPlayerIndex]) {
+                waitingForHumanInput = true;
+                // Wait for human input through GUI
+            } else {
+                // AI turn
+                playAITurn(currentPlayer);
+            }
+        }
+    }
+
+    public void makeMove(String rankToAsk, Player targetPlayer) {
+        execute(() -> playMove(rankToAsk, targetPlayer));
+    }
+
+    private void playMove(String rankToAsk, Player targetPlayer) {
+        // Only check waitingForHumanInput for human players
+        if (isHuman[currentPlayerIndex] && !waitingForHumanInput) return;
+
+        // A human move resumes the turn loop; AI moves are made from inside it
+        boolean resumeTurns = waitingForHumanInput;
+        waitingForHumanInput = false;
+        applyMove(rankToAsk, Card.rankIndex(rankToAsk), players.indexOf(targetPlayer));
+
+        if (resumeTurns) {
+            advanceTurn();
+            runTurns();
+        }
+    }
+
+    // Plays a move from a seat, after checking it against the rules: it must
+    // be that seat's turn, the seat must hold the rank it asks for and the
+    // target must be another player. The future completes once the move has
+    // been played, or exceptionally with the rule it broke. See GameServer.
+    public CompletableFuture<Void> makeMove(int seat, int rankIndex, int target) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                checkMove(seat, rankIndex, target);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            try {
+                playMove(Card.RANKS[rankIndex], players.get(target));
+            } catch (RuntimeException e) {
+                // A legal move the game failed to play: whoever is waiting
+                // hears of it, and so does the caller or the listener
+                result.completeExceptionally(e);
+                throw e;
+            }
+            result.complete(null);
+        });
+        return result;
+    }
+
+    private void checkMove(int seat, int rankIndex, int target) {
+        if (gameEnded) {
+            throw new IllegalStateException("The game is over");
+        }
+        if (!waitingForHumanInput || seat != currentPlayerIndex) {
+            throw new IllegalStateException("It is not seat " + seat + "'s turn");
+        }
+        if (rankIndex < 0 || rankIndex >= Card.RANK_COUNT) {
+            throw new IllegalArgumentException("No such rank: " + rankIndex);
+        }
+        if (!players.get(seat).hasRank(rankIndex)) {
+            throw new IllegalArgumentException("Seat " + seat + " holds no " + Card.RANKS[rankIndex] + "s");
+        }
+        if (target < 0 || target >= players.size() || target == seat) {
+            throw new IllegalArgumentException("Seat " + seat + " cannot ask seat " + target);
+        }
+    }
+
+    // The seat's strategy plays for it from now on, for a player who left.
+    // If the game was waiting on that seat, play carries on at once.
+    public void handOverToAI(int seat) {
+        execute(() -> takeOverSeat(seat));
+    }
+
+    private void takeOverSeat(int seat) {
+        isHuman[seat] = false;
+        if (waitingForHumanInput && seat == currentPlayerIndex) {
+            waitingForHumanInput = false;
+            playAITurn(players.get(seat));
+            if (!awaitingDecision) {
+                advanceTurn();
+                runTurns();
+            }
+        }
+    }
+
+    // AI moves come with the rank and target as indices already, so the
+    // name lookups are left to moves made by name
+    private void applyMove(String rankToAsk, int rankIndex, int targetIndex) {
+        Player currentPlayer = players.get(currentPlayerIndex);
+        Player targetPlayer = players.get(targetIndex);
+
+        if (isLogging()) {
+            logMessage(currentPlayer.getName() + " asks " + targetPlayer.getName() + 
+                      " for any " + rankToAsk + "s");
+        }
+        
+        if (rankIndex >= 0) {
+            eventLog.ask(currentPlayerIndex, targetIndex, rankIndex);
+            knowledge.ask(currentPlayerIndex, targetIndex, rankIndex);
+            if (isPublishing()) events.publish(new GameEvent.Asked(currentPlayerIndex, targetIndex, rankIndex));
+        }
+        if (rankIndex >= 0 && targetPlayer.hasRank(rankIndex)) {
+            long receivedCards = targetPlayer.takeRank(rankIndex);
+            currentPlayer.addCards(receivedCards);
+            if (Metrics.ENABLED) Metrics.recordAsk(Long.bitCount(receivedCards));
+            eventLog.give(currentPlayerIndex, targetIndex, receivedCards);
+            if (isPublishing()) {
+                events.publish(new GameEvent.CardsGiven(targetIndex, currentPlayerIndex, receivedCards));
+            }
+            if (isLogging()) {
+                logMessage(targetPlayer.getName() + " gave " + Long.bitCount(receivedCards) + 
+                          " card(s) to " + currentPlayer.getName());
+            }
+            checkAndScoreSet(currentPlayer, rankIndex);
+            notifyState();
+        } else {
+            if (Metrics.ENABLED) Metrics.recordAsk(0);
+            logMessage("Go Fish!");
+            if (isPublishing()) events.publish(new GameEvent.GoFish(currentPlayerIndex, rankIndex));
+            Card drawnCard = deck.drawCard();
+            if (drawnCard != null) {
+                currentPlayer.addCard(drawnCard);
+                eventLog.draw(currentPlayerIndex, drawnCard);
+                knowledge.draw(currentPlayerIndex, drawnCard.getCode());
+                if (isPublishing()) events.publish(new GameEvent.CardDrawn(currentPlayerIndex, drawnCard.getCode()));
+                if (isLogging()) {
+                    logMessage(currentPlayer.getName() + " drew" + 
+                        (isHuman[currentPlayerIndex] ? ": " + drawnCard : " a card"));
+                }
+                if (drawnCard.getRankIndex() == rankIndex) {
+                    logMessage("Lucky draw! Got the card they asked for!");
+                }
+                // Any draw can complete a set, not just the rank that was asked for
+                checkAndScoreSet(currentPlayer, drawnCard.getRankIndex());
+                notifyState();
+            }
+        }
+    }
+
+    private void playAITurn(Player currentPlayer) {
+        if (deferDecisions) {
+            awaitingDecision = true;
+            return;
+        }
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        Move move = strategies[currentPlayerIndex].chooseMove(this, currentPlayerIndex);
+        if (Metrics.ENABLED) Metrics.recordDecision(start);
+        applyAIMove(move);
+    }
+
+    // Resumes a game stopped at an AI decision with the move chosen for it
+    public void submitMove(Move move) {
+        execute(() -> resumeWithMove(move));
+    }
+
+    private void resumeWithMove(Move move) {
+        if (!awaitingDecision) {
+            throw new IllegalStateException("Game is not waiting for an AI decision");
+        }
+        awaitingDecision = false;
+        applyAIMove(move);
+        advanceTurn();
+        runTurns();
+    }
+
+    // A null move means no other seat has cards, so the AI draws instead
+    private void applyAIMove(Move move) {
+        Player currentPlayer = players.get(currentPlayerIndex);
+        if (move != null) {
+            String rankToAsk = move.getRank();
+            Player targetPlayer = players.get(move.getTarget());
+            // Store the AI's move before making it
+            this.lastAskedRank = rankToAsk;
+            this.lastTargetPlayer = targetPlayer;
+            applyMove(rankToAsk, move.getRankIndex(), move.getTarget());
+        } else {
+            this.lastAskedRank = null;
+            this.lastTargetPlayer = null;
+            if (deck.size() > 0) {
+                Card drawnCard = deck.drawCard();
+                currentPlayer.addCard(drawnCard);
+                eventLog.draw(currentPlayerIndex, drawnCard);
+                knowledge.draw(currentPlayerIndex, drawnCard.getCode());
+                if (isPublishing()) events.publish(new GameEvent.CardDrawn(currentPlayerIndex, drawnCard.getCode()));
+                if (isLogging()) {
+                    logMessage(currentPlayer.getName() + " drew a card");
+                }
+                checkAndScoreSet(currentPlayer, drawnCard.getRankIndex());
+            }
+            notifyState();
+        }
+    }
+
+    public String getLastAskedRank() {
+        return lastAskedRank;
+    }
+
+    public Player getLastTargetPlayer() {
+        return lastTargetPlayer;
+    }
+
+    public void continueTurn() {
+        execute(this::resumeTurns);
+    }
+
+    private void resumeTurns() {
+        if (gameEnded) return;
+
+        waitingForHumanInput = false;
+        advanceTurn();
+        runTurns();
+    }
+
+    private void advanceTurn() {
+        currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+        
+        // In demo mode, count completed rounds
+        if (demoMode && currentPlayerIndex == 0) {
+            roundsPlayed++;
+            if (roundsPlayed >= DEMO_MODE_ROUNDS) {
+                logMessage("\n=== Demo mode: 3 rounds completed ===");
+                endGame();
+                return;
+            }
+            if (isLogging()) {
+                logMessage("\n=== Round " + roundsPlayed + " completed ===");
+            }
+        }
+
+        if (isGameOver()) {
+            endGame();
+        }
+    }
+
+    private boolean isGameOver() {
+        if (deck.size() > 0) return false;
+        for (Player player : players) {
+            if (player.hasCards()) return false;
+        }
+        return true;
+    }
+
+    private void endGame() {
+        gameEnded = true;
+        if (Metrics.ENABLED) Metrics.recordGameOver();
+        GameEventPublisher publisher = events;
+        if (publisher != null) {
+            if (publisher.hasSubscribers()) {
+                List<Integer> finalScores = new ArrayList<>(players.size());
+                for (Player player : players) {
+                    finalScores.add(scores.get(player));
+                }
+                publisher.publish(new GameEvent.GameOver(List.copyOf(finalScores)));
+            }
+            publisher.complete();
+        }
+        if (listener == null) return;
+
+        StringBuilder message = new StringBuilder();
+        message.append("\n=== Game Over " + (demoMode ? "(Demo Mode)" : "") + " ===\n");
+        
+        for (Player player : players) {
+            message.append(player.getName() + " score: " + scores.get(player) + "\n");
+        }
+        
+        Player winner = players.stream()
+            .max((p1, p2) -> scores.get(p1).compareTo(scores.get(p2)))
+            .orElse(null);
+            
+        if (winner != null) {
+            message.append("\nWinner: " + winner.getName() + 
+                         " with " + scores.get(winner) + " sets!");
+        }
+        
+        listener.showGameOver(message.toString());
+    }
+
+    // Full-information copy of the position for search and analysis: every
+    // hand, the rest of the deck in draw order and the public rank knowledge.
+    // Later moves in this game do not touch it.
+    public GameState snapshot() {
+        GameState state = new GameState(players.size());
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            state.setHand(seat, player.getHandBits());
+            state.setScore(seat, scores.get(player));
+            state.setKnownHas(seat, knowledge.getKnownHas(seat));
+        }
+        state.setDeck(deck.remainingCodes(), deck.size());
+        state.setCurrent(currentPlayerIndex);
+        state.setCompletedRanks(knowledge.getCompletedRanks());
+        return state;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public EventLog getEventLog() {
+        return eventLog;
+    }
+
+    public RankKnowledge getKnowledge() {
+        return knowledge;
+    }
+
+    // The game's own Random; strategies draw from it so seeded games replay
+    public Random getRandom() {
+        return random;
+    }
+
+    long getRandomState() {
+        return random.getState();
+    }
+
+    byte[] getDeckCodes() {
+        return deck.remainingCodes();
+    }
+
+    int getRoundsPlayed() {
+        return roundsPlayed;
+    }
+
+    boolean isHuman(int seat) {
+        return isHuman[seat];
+    }
+
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    public boolean isDemoMode() {
+        return demoMode;
+    }
+
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+
+    public int getDeckSize() {
+        return deck.size();
+    }
+
+    public Map<Player, Integer> getScores() {
+        return scores;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    private void notifyState() {
+        if (listener != null) {
+            GameSnapshot snapshot = takeSnapshot();
+            latestSnapshot = snapshot;
+            listener.updateGameState(snapshot);
+        }
+    }
+
+    private GameSnapshot takeSnapshot() {
+        int playerCount = players.size();
+        String[] names = new String[playerCount];
+        long[] hands = new long[playerCount];
+        int[] scoresBySeat = new int[playerCount];
+        int[] lastAdded = new int[playerCount];
+        for (int seat = 0; seat < playerCount; seat++) {
+            Player player = players.get(seat);
+            names[seat] = player.getName();
+            hands[seat] = player.getHandBits();
+            scoresBySeat[seat] = scores.get(player);
+            Card card = player.getLastAddedCard();
+            lastAdded[seat] = card == null ? -1 : card.getCode();
+        }
+        return new GameSnapshot(names, hands, scoresBySeat, lastAdded, currentPlayerIndex,
+            isHuman[currentPlayerIndex], deck.size(), lastAskedRank,
+            lastTargetPlayer == null ? -1 : players.indexOf(lastTargetPlayer), gameEnded);
+    }
+
+    private boolean isLogging() {
+        return listener != null;
+    }
+
+    private void logMessage(String message) {
+        if (listener != null) {
+            listener.appendToGameLog(message);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package gofish;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+// Binary history of finished games. The file is a 16 byte header followed by
+// fixed size records, so record i always starts at HEADER_SIZE + i * RECORD_SIZE
+// and readers can scan a mapped file without parsing anything.
+//
+// Record layout (little endian):
+//   0  long   seed
+//   8  byte   player count
+//   9  byte   flags (FLAG_DEMO, FLAG_TRUNCATED)
+//   10 short  number of moves stored
+//   12 byte[MAX_PLAYERS] final score per seat
+//   16 short[MAX_MOVES] moves, see encodeMove
+//
+// MAX_PLAYERS is Game's seat limit. A move keeps each seat in two bits, so
+// raising the limit past four means a new VERSION of the format.
+public final class GameArchive {
+    public static final int MAGIC = 0x47464152; // "GFAR"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 512;
+    public static final int MAX_PLAYERS = Game.MAX_PLAYERS;
+    public static final int MAX_MOVES = (RECORD_SIZE - 12 - MAX_PLAYERS) / 2;
+
+    public static final int FLAG_DEMO = 1;
+    // The game had more than MAX_MOVES asks; the seed still replays it
+    public static final int FLAG_TRUNCATED = 2;
+
+    private static final int MOVES_OFFSET = 12 + MAX_PLAYERS;
+
+    private GameArchive() {
+    }
+
+    // A move packs into 16 bits: asker (2), target (2), rank (4), cards
+    // received (3, zero means go fish), and whether a go fish drew a card (1)
+    public static int encodeMove(int asker, int target, int rankIndex, int cardsReceived, boolean drew) {
+        return asker | target << 2 | rankIndex << 4 | cardsReceived << 8 | (drew ? 1 << 11 : 0);
+    }
+
+    public static int moveAsker(int move) {
+        return move & 0x3;
+    }
+
+    public static int moveTarget(int move) {
+        return move >>> 2 & 0x3;
+    }
+
+    public static int moveRank(int move) {
+        return move >>> 4 & 0xF;
+    }
+
+    public static int moveCardsReceived(int move) {
+        return move >>> 8 & 0x7;
+    }
+
+    public static boolean moveDrew(int move) {
+        return (move & 1 << 11) != 0;
+    }
+
+    public static Writer openWriter(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    public static Reader openReader(Path path) throws IOException {
+        return new Reader(path);
+    }
+
+    // Appends records through a single FileChannel. Records are staged in a
+    // direct buffer and written in batches; append is safe to call from
+    // several tournament workers at once.
+    public static final class Writer implements Closeable {
+        private static final int BATCH_RECORDS = 128;
+
+        private final FileChannel channel;
+        private final ByteBuffer batch;
+
+        private Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+            batch = ByteBuffer.allocateDirect(BATCH_RECORDS * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0).flip();
+                writeFully(header);
+            } else if ((channel.size() - HEADER_SIZE) % RECORD_SIZE != 0) {
+                channel.close();
+                throw new IOException("Archive " + path + " ends in a partial record");
+            }
+        }
+
+        public synchronized void append(Game game) throws IOException {
+            List<Player> players = game.getPlayers();
+            if (batch.remaining() < RECORD_SIZE) {
+                flush();
+            }
+
+            int start = batch.position();
+            Map<Player, Integer> scores = game.getScores();
+            batch.putLong(game.getSeed());
+            batch.put((byte) players.size());
+            batch.put((byte) 0);
+            batch.putShort((short) 0);
+            for (int seat = 0; seat < MAX_PLAYERS; seat++) {
+                batch.put((byte) (seat < players.size() ? scores.get(players.get(seat)) : 0));
+            }
+
+            int moves = 0;
+            boolean truncated = false;
+            EventLog log = game.getEventLog();
+            for (int i = 0; i < log.size(); i++) {
+                if (log.getType(i) != EventLog.ASK) continue;
+                if (moves == MAX_MOVES) {
+                    truncated = true;
+                    break;
+                }
+                int data = log.getData(i);
+                int received = 0;
+                boolean drew = false;
+                if (i + 1 < log.size() && log.getType(i + 1) == EventLog.GIVE) {
+                    received = Integer.bitCount(log.getData(i + 1) & 0xF);
+                } else if (i + 1 < log.size() && log.getType(i + 1) == EventLog.DRAW) {
+                    drew = true;
+                }
+                int move = encodeMove(log.getPlayer(i), data >>> 4, data & 0xF, received, drew);
+                batch.putShort(start + MOVES_OFFSET + moves * 2, (short) move);
+                moves++;
+            }
+
+            int flags = (game.isDemoMode() ? FLAG_DEMO : 0) | (truncated ? FLAG_TRUNCATED : 0);
+            batch.put(start + 9, (byte) flags);
+            batch.putShort(start + 10, (short) moves);
+            // Zero the unused move slots so records are byte-identical across runs
+            for (int offset = start + MOVES_OFFSET + moves * 2; offset < start + RECORD_SIZE; offset++) {
+                batch.put(offset, (byte) 0);
+            }
+            batch.position(start + RECORD_SIZE);
+        }
+
+        public synchronized void flush() throws IOException {
+            batch.flip();
+            writeFully(batch);
+            batch.clear();
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    // Read-only view of an archive through memory-mapped segments. A single
+    // mapping is limited to 2 GB, so larger files are split on record
+    // boundaries.
+    public static final class Reader implements Closeable {
+        private static final long RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_SIZE;
+
+        private final FileChannel channel;
+        private final MappedByteBuffer[] segments;
+        private final long recordCount;
+
+        private Reader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                channel.close();
+                throw new IOException("Archive " + path + " has no header");
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != RECORD_SIZE) {
+                channel.close();
+                throw new IOException("Archive " + path + " is not a version " + VERSION + " game archive");
+            }
+
+            // A trailing partial record from an interrupted write is ignored
+            recordCount = (size - HEADER_SIZE) / RECORD_SIZE;
+            int segmentCount = (int) ((recordCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = i * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, recordCount - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+                segments[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        public long size() {
+            return recordCount;
+        }
+
+        public long getSeed(long record) {
+            return segment(record).getLong(offset(record));
+        }
+
+        public int getPlayerCount(long record) {
+            return segment(record).get(offset(record) + 8);
+        }
+
+        public int getFlags(long record) {
+            return segment(record).get(offset(record) + 9);
+        }
+
+        public int getMoveCount(long record) {
+            return segment(record).getShort(offset(record) + 10);
+        }
+
+        public int getScore(long record, int seat) {
+            return segment(record).get(offset(record) + 12 + seat);
+        }
+
+        public int getMove(long record, int move) {
+            return segment(record).getShort(offset(record) + MOVES_OFFSET + move * 2) & 0xFFFF;
+        }
+
+        private MappedByteBuffer segment(long record) {
+            if (record < 0 || record >= recordCount) {
+                throw new IndexOutOfBoundsException("Record " + record + " of " + recordCount);
+            }
+            return segments[(int) (record / RECORDS_PER_SEGMENT)];
+        }
+
+        private static int offset(long record) {
+            return (int) (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package gofish;
+
+import java.util.List;
+
+// What Game publishes through Game.events(). Seats are indexes into the
+// game's player list, ranks are indexes into Card.RANKS and cards are card
+// codes or, for CardsGiven, a Player hand mask. The deal happens before
+// anyone can subscribe; Game.getLatestSnapshot gives the state to start from.
+public sealed interface GameEvent {
+    record TurnStarted(int seat) implements GameEvent {
+    }
+
+    record Asked(int seat, int target, int rankIndex) implements GameEvent {
+    }
+
+    record CardsGiven(int from, int to, long cards) implements GameEvent {
+    }
+
+    // The target had none of the rank; a CardDrawn follows unless the deck
+    // is empty
+    record GoFish(int seat, int rankIndex) implements GameEvent {
+    }
+
+    record CardDrawn(int seat, int cardCode) implements GameEvent {
+    }
+
+    record SetCompleted(int seat, int rankIndex) implements GameEvent {
+    }
+
+    // Always the last event, and never dropped
+    record GameOver(List<Integer> scores) implements GameEvent {
+    }
+}
@@ -0,0 +1,210 @@
+package gofish;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Flow.Publisher behind Game.events(). Each subscription has a bounded
+// buffer and is delivered to on an executor, as its demand allows, so the
+// game only ever hands an event over and moves on. When a subscriber falls
+// so far behind that its buffer is full, its Overflow policy decides what
+// gives: the new event, the oldest one, or everything but the latest.
+// GameOver always gets through and is followed by onComplete.
+//
+// SubmissionPublisher works the same way but can only drop new items, and
+// a fast simulation feeding a GUI or metrics wants the other two as well.
+public final class GameEventPublisher implements Flow.Publisher<GameEvent> {
+    public enum Overflow {
+        // Keep what is buffered and lose the new event
+        DROP_NEWEST,
+        // Make room by losing the oldest buffered event
+        DROP_OLDEST,
+        // Keep only the most recent event, sampling the stream at the
+        // subscriber's pace
+        LATEST
+    }
+
+    private final Executor executor;
+    private final CopyOnWriteArrayList<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean completed;
+
+    public GameEventPublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public GameEventPublisher(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        subscribe(subscriber, Flow.defaultBufferSize(), Overflow.DROP_NEWEST);
+    }
+
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber, int bufferSize, Overflow overflow) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        EventSubscription subscription = new EventSubscription(subscriber, bufferSize, overflow);
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+        // Subscribed after the end: the subscriber just sees completion
+        if (completed) {
+            subscription.complete();
+        }
+    }
+
+    // Events lost to full buffers, over all subscribers
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // Lets the game skip building events nobody will see
+    boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    // Called by whichever thread runs the game's commands
+    void publish(GameEvent event) {
+        for (EventSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    void complete() {
+        completed = true;
+        for (EventSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    private final class EventSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final int capacity;
+        private final Overflow overflow;
+        // Guarded by this; held only to add or take one event
+        private final ArrayDeque<GameEvent> buffer = new ArrayDeque<>();
+        private boolean completed;
+
+        private final AtomicLong requested = new AtomicLong();
+        // Counts the reasons to run since the last drain, so only one
+        // delivery task runs at a time and none is lost
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean cancelled;
+        // Set by a bad request. The delivery task reports it, so the
+        // subscriber never gets onError while it is still inside onNext.
+        private volatile Throwable error;
+
+        EventSubscription(Flow.Subscriber<? super GameEvent> subscriber, int capacity, Overflow overflow) {
+            this.subscriber = subscriber;
+            this.capacity = overflow == Overflow.LATEST ? 1 : capacity;
+            this.overflow = overflow;
+        }
+
+        void offer(GameEvent event) {
+            if (cancelled) return;
+            synchronized (this) {
+                if (buffer.size() == capacity) {
+                    if (overflow == Overflow.DROP_NEWEST && !(event instanceof GameEvent.GameOver)) {
+                        dropped.increment();
+                        return;
+                    }
+                    buffer.poll();
+                    dropped.increment();
+                }
+                buffer.add(event);
+            }
+            schedule();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (error == null) {
+                    error = new IllegalArgumentException("Requested " + n + " events");
+                }
+                subscriptions.remove(this);
+                schedule();
+                return;
+            }
+            requested.getAndAccumulate(n, (current, add) -> {
+                long sum = current + add;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+            }
+        }
+
+        private void schedule() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        // Delivers as much as demand allows, on the executor
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                long demand = requested.get();
+                long delivered = 0;
+                while (!cancelled) {
+                    Throwable failure = error;
+                    if (failure != null) {
+                        cancel();
+                        subscriber.onError(failure);
+                        return;
+                    }
+                    GameEvent event;
+                    boolean done;
+                    synchronized (this) {
+                        event = delivered < demand ? buffer.poll() : null;
+                        done = completed && buffer.isEmpty();
+                    }
+                    if (event != null) {
+                        try {
+                            subscriber.onNext(event);
+                        } catch (RuntimeException e) {
+                            cancel();
+                            subscriber.onError(e);
+                            return;
+                        }
+                        delivered++;
+                    } else {
+                        if (done) {
+                            cancel();
+                            subscriber.onComplete();
+                            return;
+                        }
+                        break;
+                    }
+                }
+                if (delivered != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-delivered);
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -1,13 +1,17 @@
+package gofish;
+
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import javax.swing.Timer;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.RoundRectangle2D;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
 
-public class GameGUI extends JFrame {
+public class GameGUI extends JFrame implements GameListener {
     private Game game;
     private JPanel mainPanel;
     private JPanel playerHandPanel;
@@ -16,9 +20,17 @@ public class GameGUI extends JFrame {
     private JPanel deckPanel;
     private Map<String, JButton> playerButtons;
     private List<CardButton> cardButtons;
-    private JTextArea gameLog;
+    // Hand panel buttons by card code, and the cards the panel shows now
+    private CardButton[] handCardButtons = new CardButton[Card.DECK_SIZE];
+    private long shownHand;
+    // Every player's hand as of the last update, to find the cards to animate
+    private long[] seenHands;
+    private int[] playerButtonStates;
+    private JList<String> gameLog;
+    // Appended to from the game thread
+    private volatile GameLogModel logModel;
     private String selectedRank;
-    private Player selectedPlayer;
+    private int selectedSeat = -1;
     private JScrollPane logScrollPane;
     private JButton continueButton;
     private JLabel aiMoveLabel;
@@ -28,20 +40,36 @@ public class GameGUI extends JFrame {
     private JLabel deckCountLabel;
     private JLayeredPane layeredPane;
 
-    private static final int TOP_X = 400;
-    private static final int TOP_Y = 50;
-    private static final int LEFT_X = 50;
-    private static final int LEFT_Y = 275;
-    private static final int RIGHT_X = 750;
-    private static final int RIGHT_Y = 275;
-    private static final int BOTTOM_X = 400;
-    private static final int BOTTOM_Y = 500;
+    private JPanel tablePanel;
+    private TableLayout tableLayout;
+    // Last state placed on the table, so a resize can place it again
+    private GameSnapshot seated;
+
+    // The game in progress is saved here every few seconds and when the
+    // window closes, and offered on the main menu next time
+    private final GameSave.Slots saveSlots = new GameSave.Slots(savePath());
+    private final GameSave.Autosaver autosaver = new GameSave.Autosaver(saveSlots);
+    private Timer autosaveTimer;
+    private static final int AUTOSAVE_MILLIS = 5000;
+
+    private static final Color PLAYER_BUTTON_COLOR = new Color(50, 120, 50);
 
     public GameGUI() {
         super("Go Fish Card Game");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(1000, 700);
+        setMinimumSize(new Dimension(800, 600));
         setLocationRelativeTo(null);
+        // Runs before EXIT_ON_CLOSE ends the program
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (game != null && !game.isGameEnded()) {
+                    autosaver.save(game);
+                }
+                autosaver.close();
+            }
+        });
         
         // Set up the animated background
         background = new AnimatedBackground();
@@ -79,6 +107,15 @@ public class GameGUI extends JFrame {
         mainPanel.add(Box.createVerticalGlue());
         mainPanel.add(titleLabel);
         mainPanel.add(Box.createRigidArea(new Dimension(0, 60)));
+
+        // A finished game is saved too, so it is never offered here
+        Game saved = saveSlots.load();
+        if (saved != null && !saved.isGameEnded()) {
+            JButton resumeButton = createMenuButton("Resume Saved Game");
+            resumeButton.addActionListener(e -> resumeGame(saved));
+            mainPanel.add(resumeButton);
+            mainPanel.add(Box.createRigidArea(new Dimension(0, 20)));
+        }
         mainPanel.add(normalGameButton);
         mainPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         mainPanel.add(demoGameButton);
@@ -222,10 +259,37 @@ public class GameGUI extends JFrame {
     private void startGame(String[] playerNames, boolean[] isHuman, boolean demoMode) {
         game = new Game(playerNames, isHuman, demoMode);
         createGameInterface();
-        game.setGUI(this);
+        game.setListener(this);
+        startAutosave();
         game.play();
     }
 
+    private void resumeGame(Game saved) {
+        game = saved;
+        createGameInterface();
+        game.setListener(this);
+        startAutosave();
+        game.resume();
+    }
+
+    // Encoding runs here on the event thread and takes microseconds; the
+    // file is written on the autosaver's thread
+    private void startAutosave() {
+        autosaveTimer = new Timer(AUTOSAVE_MILLIS, e -> {
+            if (game != null) {
+                autosaver.save(game);
+            }
+        });
+        autosaveTimer.start();
+    }
+
+    private static Path savePath() {
+        String configured = System.getProperty("gofish.save");
+        return configured != null
+            ? Paths.get(configured)
+            : Paths.get(System.getProperty("user.home"), ".gofish", "autosave");
+    }
+
     private void createGameInterface() {
         getContentPane().removeAll();
         
@@ -233,9 +297,16 @@ public class GameGUI extends JFrame {
         layeredPane = new JLayeredPane();
         layeredPane.setPreferredSize(new Dimension(1000, 700));
         setContentPane(layeredPane);
+        tableLayout = new TableLayout(1000, 700);
+        layeredPane.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                relayoutTable();
+            }
+        });
         
         // Add animated background at the bottom layer
-        background.setBounds(0, 0, 1000, 700);
+        background.setBounds(0, 0, tableLayout.getWidth(), tableLayout.getHeight());
         layeredPane.add(background, JLayeredPane.DEFAULT_LAYER);
 
         // Create main game panel
@@ -256,16 +327,40 @@ public class GameGUI extends JFrame {
             }
         };
         mainGamePanel.setLayout(null); // Use absolute positioning for table layout
-        mainGamePanel.setBounds(0, 0, 1000, 700);
+        mainGamePanel.setBounds(0, 0, tableLayout.getWidth(), tableLayout.getHeight());
+        tablePanel = mainGamePanel;
         mainGamePanel.setOpaque(false);
 
-        // Create game log panel at the bottom
-        gameLog = new JTextArea(5, 40);
-        gameLog.setEditable(false);
+        // Create game log panel at the bottom. Rows have a fixed size, so the
+        // list only lays out and paints the lines in view however long the
+        // log gets.
+        GameLogModel model = new GameLogModel();
+        logModel = model;
+        gameLog = new JList<String>(model) {
+            @Override
+            public boolean getScrollableTracksViewportWidth() {
+                return true;
+            }
+        };
         gameLog.setFont(new Font("Monospaced", Font.PLAIN, 14));
         gameLog.setBackground(new Color(0, 0, 0, 180));
         gameLog.setForeground(Color.WHITE);
-        gameLog.setCaretColor(Color.WHITE);
+        gameLog.setFocusable(false);
+        gameLog.setVisibleRowCount(5);
+        gameLog.setFixedCellHeight(gameLog.getFontMetrics(gameLog.getFont()).getHeight());
+        gameLog.setFixedCellWidth(1);
+        gameLog.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, false, false);
+                setOpaque(false);
+                setForeground(Color.WHITE);
+                return this;
+            }
+        });
+        JList<String> logView = gameLog;
+        model.setOnFlush(() -> logView.ensureIndexIsVisible(model.getSize() - 1));
         logScrollPane = new JScrollPane(gameLog);
         logScrollPane.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(new Color(255, 255, 255, 100)),
@@ -277,7 +372,7 @@ public class GameGUI extends JFrame {
         ));
         logScrollPane.setOpaque(false);
         logScrollPane.getViewport().setOpaque(false);
-        logScrollPane.setBounds(200, 600, 600, 80);
+        logScrollPane.setBounds(tableLayout.getLog());
         mainGamePanel.add(logScrollPane);
 
         // Create deck panel in the center of the table
@@ -289,7 +384,7 @@ public class GameGUI extends JFrame {
             }
         };
         deckPanel.setOpaque(false);
-        deckPanel.setBounds(450, 275, 100, 150);
+        deckPanel.setBounds(tableLayout.getDeck());
         
         // Create a face-down card for the deck
         CardButton deckCard = new CardButton(null) {
@@ -346,7 +441,7 @@ public class GameGUI extends JFrame {
             new Font("Arial", Font.BOLD, 14),
             Color.WHITE
         ));
-        playerHandPanel.setBounds(50, 550, 900, 150);  // Moved down and made wider
+        playerHandPanel.setBounds(tableLayout.getSeating(1, 0).getHand());
         mainGamePanel.add(playerHandPanel);
         
         // Create other players panels around the table
@@ -359,7 +454,7 @@ public class GameGUI extends JFrame {
         };
         otherPlayersPanel.setLayout(null);
         otherPlayersPanel.setOpaque(false);
-        otherPlayersPanel.setBounds(0, 0, 1000, 700);
+        otherPlayersPanel.setBounds(0, 0, tableLayout.getWidth(), tableLayout.getHeight());
         mainGamePanel.add(otherPlayersPanel);
         
         // Create game control panel
@@ -371,7 +466,7 @@ public class GameGUI extends JFrame {
             }
         };
         gameControlPanel.setOpaque(false);
-        gameControlPanel.setBounds(350, 200, 300, 60);
+        gameControlPanel.setBounds(tableLayout.getControls());
         
         aiMoveLabel = new JLabel();
         aiMoveLabel.setFont(new Font("Arial", Font.BOLD, 16));
@@ -401,202 +496,199 @@ public class GameGUI extends JFrame {
         repaint();
     }
 
-    public void updateGameState(Player currentPlayer, List<Player> players, boolean isHumanTurn) {
+    @Override
+    public void updateGameState(GameSnapshot snapshot) {
         SwingUtilities.invokeLater(() -> {
-            playerHandPanel.removeAll();
-            otherPlayersPanel.removeAll();
-            cardButtons.clear();
-            playerButtons.clear();
+            long rebuildStart = Metrics.ENABLED ? System.nanoTime() : 0;
+            int playerCount = snapshot.getPlayerCount();
+            boolean isHumanTurn = snapshot.isHumanTurn();
+            if (seenHands == null || seenHands.length != playerCount) {
+                seenHands = new long[playerCount];
+                playerButtonStates = new int[playerCount];
+                Arrays.fill(playerButtonStates, -1);
+            }
 
             // Update deck count
-            deckCountLabel.setText("Cards: " + game.getDeckSize());
-
-            // Assign positions based on number of players and current player
-            String[] positions;
-            int currentPlayerIndex = players.indexOf(currentPlayer);
-            
-            if (players.size() == 2) {
-                positions = new String[]{"bottom", "top"};
-            } else if (players.size() == 3) {
-                positions = new String[]{"bottom", "left", "right"};
-            } else {
-                positions = new String[]{"bottom", "left", "top", "right"};
-            }
-            
-            // Rotate positions so current player is always at their assigned position
-            String[] rotatedPositions = new String[positions.length];
-            for (int i = 0; i < positions.length; i++) {
-                int newIndex = (i - currentPlayerIndex + positions.length) % positions.length;
-                rotatedPositions[i] = positions[newIndex];
-            }
-
-            // Position players around the table
-            for (int i = 0; i < players.size(); i++) {
-                Player player = players.get(i);
-                if (player != currentPlayer || !isHumanTurn) {
-                    JButton playerButton = createPlayerButton(player);
+            deckCountLabel.setText("Cards: " + snapshot.getDeckSize());
+
+            // Seats are rotated so the current player is always at the bottom
+            int currentPlayerIndex = snapshot.getCurrentPlayer();
+            TableLayout.Seating seating = tableLayout.getSeating(playerCount, currentPlayerIndex);
+            seated = snapshot;
+
+            // Position players around the table. Each player's button is made
+            // once and then only moved, relabelled, shown or hidden.
+            for (int i = 0; i < playerCount; i++) {
+                String name = snapshot.getName(i);
+                JButton playerButton = playerButtons.get(name);
+                if (playerButton == null) {
+                    playerButton = createPlayerButton(snapshot, i);
+                    JButton button = playerButton;
+                    int seat = i;
                     playerButton.addActionListener(e -> {
-                        selectedPlayer = player;
-                        updateSelectedPlayer(playerButton);
-                        if (selectedRank != null && selectedPlayer != null) {
-                            game.makeMove(selectedRank, selectedPlayer);
-                            selectedRank = null;
-                            selectedPlayer = null;
-                        }
+                        selectedSeat = seat;
+                        updateSelectedPlayer(button);
                     });
-                    playerButtons.put(player.getName(), playerButton);
-                    
-                    // Get position for this player
-                    String position = rotatedPositions[i];
-                    int x, y;
-                    
-                    // Set coordinates based on position
-                    switch (position) {
-                        case "top":
-                            x = TOP_X;
-                            y = TOP_Y;
-                            break;
-                        case "left":
-                            x = LEFT_X;
-                            y = LEFT_Y;
-                            break;
-                        case "right":
-                            x = RIGHT_X;
-                            y = RIGHT_Y;
-                            break;
-                        case "bottom":
-                            x = BOTTOM_X;
-                            y = BOTTOM_Y;
-                            break;
-                        default:
-                            x = 0;
-                            y = 0;
-                    }
-                    
-                    playerButton.setBounds(x, y, 150, 100);
+                    playerButtons.put(name, playerButton);
                     otherPlayersPanel.add(playerButton);
-
-                    // If this is the current AI player, animate their new cards
-                    if (player == currentPlayer && !isHumanTurn) {
-                        List<Card> hand = player.getHand();
-                        if (!hand.isEmpty()) {
-                            Card lastCard = hand.get(hand.size() - 1);
-                            Point start = new Point(deckPanel.getX() + deckPanel.getWidth()/2, 
-                                                  deckPanel.getY() + deckPanel.getHeight()/2);
-                            Point end = new Point(x + 75, y + 50);
-                            animateCardDraw(lastCard, start, end);
-                        }
-                    }
                 }
-            }
 
-            if (isHumanTurn) {
-                // Position the hand panel based on current player's position
-                String currentPosition = rotatedPositions[currentPlayerIndex];
-                int handX, handY, handWidth, handHeight;
-                
-                switch (currentPosition) {
-                    case "left":
-                        handX = 50;
-                        handY = 100;
-                        handWidth = 150;
-                        handHeight = 400;
-                        break;
-                    case "right":
-                        handX = 800;
-                        handY = 100;
-                        handWidth = 150;
-                        handHeight = 400;
-                        break;
-                    case "top":
-                        handX = 50;
-                        handY = 50;
-                        handWidth = 900;
-                        handHeight = 150;
-                        break;
-                    case "bottom":
-                    default:
-                        handX = 50;
-                        handY = 550;
-                        handWidth = 900;
-                        handHeight = 150;
+                if (i == currentPlayerIndex && isHumanTurn) {
+                    playerButton.setVisible(false);
+                    continue;
                 }
-                
-                playerHandPanel.setBounds(handX, handY, handWidth, handHeight);
-
-                // Show current player's hand with animation
-                List<Card> hand = currentPlayer.getHand();
-                int delay = 0;
-                boolean isVertical = currentPosition.equals("left") || currentPosition.equals("right");
-                int cardSpacing = isVertical ? 
-                    Math.min(60, (handHeight - 100) / Math.max(1, hand.size())) :
-                    Math.min(80, (handWidth - 100) / Math.max(1, hand.size()));
-                
-                for (Card card : hand) {
-                    CardButton cardButton = new CardButton(card);
-                    cardButton.setVisible(false);
-                    cardButton.addActionListener(e -> {
-                        selectedRank = card.getRank();
-                        updateSelectedCard(cardButton);
-                    });
-                    cardButtons.add(cardButton);
-                    playerHandPanel.add(cardButton);
-                    
-                    // Position each card with proper spacing
-                    if (isVertical) {
-                        cardButton.setBounds(25, cardSpacing * cardButtons.size() - cardSpacing, 
-                                          CardButton.CARD_WIDTH, CardButton.CARD_HEIGHT);
-                    } else {
-                        cardButton.setBounds(cardSpacing * cardButtons.size() - cardSpacing, 25, 
-                                          CardButton.CARD_WIDTH, CardButton.CARD_HEIGHT);
-                    }
-                    
-                    // Animate card appearance
-                    Timer timer = new Timer(delay, e -> {
-                        cardButton.setVisible(true);
+                updatePlayerButton(playerButton, snapshot, i);
+
+                Rectangle seat = seating.getSeat(i);
+                playerButton.setBounds(seat);
+                playerButton.setVisible(true);
+
+                // If this is the current AI player and they picked up cards
+                // since the last update, animate the newest one
+                if (i == currentPlayerIndex && !isHumanTurn) {
+                    if ((snapshot.getHand(i) & ~seenHands[i]) != 0) {
+                        Card lastCard = snapshot.getLastAddedCard(i);
                         Point start = new Point(deckPanel.getX() + deckPanel.getWidth()/2, 
                                               deckPanel.getY() + deckPanel.getHeight()/2);
-                        Point end = SwingUtilities.convertPoint(playerHandPanel, 
-                                                              cardButton.getLocation(), 
-                                                              layeredPane);
-                        animateCardDraw(card, start, end);
-                    });
-                    timer.setRepeats(false);
-                    timer.start();
-                    delay += 200;
+                        Point end = new Point(seat.x + seat.width/2, seat.y + seat.height/2);
+                        animateCardDraw(lastCard, start, end);
+                    }
                 }
+            }
+
+            if (isHumanTurn) {
+                playerHandPanel.setBounds(seating.getHand());
+
+                // Show current player's hand, animating only the cards that
+                // arrived since this player was last shown
+                long hand = snapshot.getHand(currentPlayerIndex);
+                showHand(hand, hand & ~seenHands[currentPlayerIndex], seating.isVertical(),
+                    seating.getCardSpacing(Long.bitCount(hand)));
             } else {
+                showHand(0, 0, false, 0);
+
                 // Show AI player's turn info
-                startWaitingAnimation(currentPlayer.getName());
+                String currentName = snapshot.getName(currentPlayerIndex);
+                startWaitingAnimation(currentName);
                 String aiMove = String.format("<html><div style='text-align: center;'>%s's turn<br>Asking for: <span style='color: yellow'>%s</span><br>Target: <span style='color: yellow'>%s</span></div></html>",
-                    currentPlayer.getName(),
-                    game.getLastAskedRank(),
-                    game.getLastTargetPlayer() != null ? game.getLastTargetPlayer().getName() : "");
+                    currentName,
+                    snapshot.getLastAskedRank(),
+                    snapshot.getLastTarget() >= 0 ? snapshot.getName(snapshot.getLastTarget()) : "");
                 aiMoveLabel.setText(aiMove);
                 continueButton.setEnabled(true);
             }
 
+            for (int i = 0; i < playerCount; i++) {
+                seenHands[i] = snapshot.getHand(i);
+            }
+
             playerHandPanel.revalidate();
             playerHandPanel.repaint();
             otherPlayersPanel.revalidate();
             otherPlayersPanel.repaint();
+            if (Metrics.ENABLED) Metrics.recordRebuild(rebuildStart);
         });
     }
 
-    private JButton createPlayerButton(Player player) {
+    // Follows the window size. Builds the layout for the new size and moves
+    // the panels, seats and hand there; nothing is rebuilt.
+    private void relayoutTable() {
+        int width = layeredPane.getWidth();
+        int height = layeredPane.getHeight();
+        if (width <= 0 || height <= 0 || tableLayout.fits(width, height)) return;
+
+        tableLayout = new TableLayout(width, height);
+        background.setBounds(0, 0, width, height);
+        tablePanel.setBounds(0, 0, width, height);
+        otherPlayersPanel.setBounds(0, 0, width, height);
+        logScrollPane.setBounds(tableLayout.getLog());
+        deckPanel.setBounds(tableLayout.getDeck());
+        gameControlPanel.setBounds(tableLayout.getControls());
+
+        if (seated != null) {
+            TableLayout.Seating seating = tableLayout.getSeating(seated.getPlayerCount(), seated.getCurrentPlayer());
+            for (int i = 0; i < seated.getPlayerCount(); i++) {
+                JButton playerButton = playerButtons.get(seated.getName(i));
+                if (playerButton != null) {
+                    playerButton.setBounds(seating.getSeat(i));
+                }
+            }
+            playerHandPanel.setBounds(seating.getHand());
+            if (seated.isHumanTurn()) {
+                showHand(shownHand, 0, seating.isVertical(), seating.getCardSpacing(Long.bitCount(shownHand)));
+            }
+        }
+        layeredPane.revalidate();
+        layeredPane.repaint();
+    }
+
+    // Brings the hand panel in line with the given hand. Buttons of cards
+    // that stay are left alone, gone cards are removed and new ones are added
+    // in card order. Buttons are kept per card for the whole game, so a card
+    // that comes back reuses its button. Only cards in animate fly in from
+    // the deck.
+    private void showHand(long hand, long animate, boolean isVertical, int cardSpacing) {
+        for (long gone = shownHand & ~hand; gone != 0; gone &= gone - 1) {
+            playerHandPanel.remove(handCardButtons[Long.numberOfTrailingZeros(gone)]);
+        }
+        cardButtons.clear();
+
+        int delay = 0;
+        for (long bits = hand; bits != 0; bits &= bits - 1) {
+            int code = Long.numberOfTrailingZeros(bits);
+            CardButton cardButton = handCardButtons[code];
+            if (cardButton == null) {
+                Card card = Card.of(code);
+                CardButton button = new CardButton(card);
+                button.addActionListener(e -> {
+                    selectedRank = card.getRank();
+                    updateSelectedCard(button);
+                });
+                handCardButtons[code] = button;
+                cardButton = button;
+            }
+            if ((shownHand & 1L << code) == 0) {
+                cardButton.setSelected(false);
+                playerHandPanel.add(cardButton, cardButtons.size());
+            }
+            cardButtons.add(cardButton);
+
+            // Position each card with proper spacing
+            if (isVertical) {
+                cardButton.setBounds(25, cardSpacing * cardButtons.size() - cardSpacing, 
+                                  CardButton.CARD_WIDTH, CardButton.CARD_HEIGHT);
+            } else {
+                cardButton.setBounds(cardSpacing * cardButtons.size() - cardSpacing, 25, 
+                                  CardButton.CARD_WIDTH, CardButton.CARD_HEIGHT);
+            }
+
+            if ((animate & 1L << code) == 0) {
+                cardButton.setVisible(true);
+                continue;
+            }
+
+            // Animate card appearance
+            CardButton animated = cardButton;
+            animated.setVisible(false);
+            Animator.get().after(delay, () -> {
+                animated.setVisible(true);
+                Point start = new Point(deckPanel.getX() + deckPanel.getWidth()/2, 
+                                      deckPanel.getY() + deckPanel.getHeight()/2);
+                Point end = SwingUtilities.convertPoint(playerHandPanel, 
+                                                      animated.getLocation(), 
+                                                      layeredPane);
+                animateCardDraw(animated.getCard(), start, end);
+            });
+            delay += 200;
+        }
+        shownHand = hand;
+    }
+
+    private JButton createPlayerButton(GameSnapshot snapshot, int seat) {
         JButton button = new JButton();
         button.setLayout(new BorderLayout());
-        
-        int handSize = player.getHand().size();
-        String handText = handSize + " card" + (handSize != 1 ? "s" : "");
-        int score = game.getScores().get(player);
-        String scoreText = score + " set" + (score != 1 ? "s" : "");
-        
-        String text = String.format("<html><div style='text-align: center;'><b>%s</b><br>%s<br>%s</div></html>", 
-            player.getName(), handText, scoreText);
-        
-        button.setText(text);
-        button.setBackground(new Color(50, 120, 50));
+        button.setText(playerButtonText(snapshot.getName(seat), snapshot.getHandSize(seat), snapshot.getScore(seat)));
+        button.setBackground(PLAYER_BUTTON_COLOR);
         button.setForeground(Color.WHITE);
         button.setFocusPainted(false);
         button.setBorder(BorderFactory.createCompoundBorder(
@@ -607,6 +699,26 @@ public class GameGUI extends JFrame {
         return button;
     }
 
+    // Relabels the button only when the hand size or score has changed, and
+    // clears any selection highlight left from the last turn
+    private void updatePlayerButton(JButton button, GameSnapshot snapshot, int seat) {
+        int handSize = snapshot.getHandSize(seat);
+        int score = snapshot.getScore(seat);
+        int state = handSize << 8 | score;
+        if (playerButtonStates[seat] != state) {
+            playerButtonStates[seat] = state;
+            button.setText(playerButtonText(snapshot.getName(seat), handSize, score));
+        }
+        button.setBackground(PLAYER_BUTTON_COLOR);
+    }
+
+    private static String playerButtonText(String name, int handSize, int score) {
+        String handText = handSize + " card" + (handSize != 1 ? "s" : "");
+        String scoreText = score + " set" + (score != 1 ? "s" : "");
+        return String.format("<html><div style='text-align: center;'><b>%s</b><br>%s<br>%s</div></html>", 
+            name, handText, scoreText);
+    }
+
     private void updateSelectedCard(CardButton selectedButton) {
         for (CardButton button : cardButtons) {
             button.setSelected(button == selectedButton);
@@ -621,18 +733,13 @@ public class GameGUI extends JFrame {
         if (selectedButton != null) {
             for (Map.Entry<String, JButton> entry : playerButtons.entrySet()) {
                 if (entry.getValue() == selectedButton) {
-                    for (Player p : game.getPlayers()) {
-                        if (p.getName().equals(entry.getKey())) {
-                            selectedPlayer = p;
-                            if (selectedRank != null) {
-                                makeMove(selectedRank, selectedPlayer);
-                                selectedRank = null;
-                                selectedPlayer = null;
-                                updateSelectedCard(null);
-                                updateSelectedPlayer(null);
-                            }
-                            break;
-                        }
+                    selectedSeat = seated.seatOf(entry.getKey());
+                    if (selectedRank != null && selectedSeat >= 0) {
+                        makeMove(selectedRank, selectedSeat);
+                        selectedRank = null;
+                        selectedSeat = -1;
+                        updateSelectedCard(null);
+                        updateSelectedPlayer(null);
                     }
                     break;
                 }
@@ -640,15 +747,31 @@ public class GameGUI extends JFrame {
         }
     }
 
+    @Override
     public void appendToGameLog(String message) {
-        SwingUtilities.invokeLater(() -> {
-            gameLog.append(message + "\n");
-            gameLog.setCaretPosition(gameLog.getDocument().getLength());
-        });
+        GameLogModel model = logModel;
+        if (model != null) {
+            model.append(message);
+        }
     }
 
+    @Override
+    public void commandFailed(RuntimeException error) {
+        appendToGameLog("Error: " + error.getMessage());
+    }
+
+    @Override
     public void showGameOver(String message) {
         SwingUtilities.invokeLater(() -> {
+            // Replaces the last save, so the finished game is not offered
+            // for resuming
+            if (autosaveTimer != null) {
+                autosaveTimer.stop();
+                autosaveTimer = null;
+            }
+            if (game != null) {
+                autosaver.save(game);
+            }
             JOptionPane.showMessageDialog(this, message, "Game Over", JOptionPane.INFORMATION_MESSAGE);
             int choice = JOptionPane.showConfirmDialog(this, 
                 "Would you like to play again?", 
@@ -664,9 +787,14 @@ public class GameGUI extends JFrame {
                     layeredPane.removeAll();
                 }
                 selectedRank = null;
-                selectedPlayer = null;
+                selectedSeat = -1;
                 cardButtons = new ArrayList<>();
                 playerButtons = new HashMap<>();
+                handCardButtons = new CardButton[Card.DECK_SIZE];
+                shownHand = 0;
+                seenHands = null;
+                playerButtonStates = null;
+                seated = null;
                 game = null;
                 
                 // Reset the frame completely
@@ -680,17 +808,24 @@ public class GameGUI extends JFrame {
                 otherPlayersPanel = null;
                 deckPanel = null;
                 gameLog = null;
+                if (logModel != null) {
+                    logModel.close();
+                    logModel = null;
+                }
                 logScrollPane = null;
                 continueButton = null;
                 aiMoveLabel = null;
                 deckCountLabel = null;
                 layeredPane = null;
+                tablePanel = null;
+                tableLayout = null;
                 
                 // Create fresh main menu
                 createMainMenu();
                 revalidate();
                 repaint();
             } else {
+                autosaver.close();
                 dispose();
             }
         });
@@ -726,33 +861,20 @@ public class GameGUI extends JFrame {
                              CardButton.CARD_HEIGHT);
         
         layeredPane.add(animatedCard, JLayeredPane.DRAG_LAYER);
-        
-        Timer timer = new Timer(16, null);
-        final long startTime = System.currentTimeMillis();
-        final int duration = 500;
-        
-        timer.addActionListener(e -> {
-            long elapsed = System.currentTimeMillis() - startTime;
-            float progress = Math.min(1f, (float) elapsed / duration);
-            
-            // Use easing function for smooth animation
-            float easedProgress = (float) (1 - Math.pow(1 - progress, 3));
-            
+        JLayeredPane pane = layeredPane;
+
+        // Use easing function for smooth animation
+        Animator.get().tween(0, 500, Animator.Easing.EASE_OUT_CUBIC, easedProgress -> {
             int newX = start.x + (int) ((end.x - start.x) * easedProgress);
             int newY = start.y + (int) ((end.y - start.y) * easedProgress);
             
             animatedCard.setLocation(newX - CardButton.CARD_WIDTH/2, 
                                    newY - CardButton.CARD_HEIGHT/2);
-            
-            if (progress >= 1f) {
-                timer.stop();
-                layeredPane.remove(animatedCard);
-                layeredPane.revalidate();
-                layeredPane.repaint();
-            }
+        }, () -> {
+            pane.remove(animatedCard);
+            Animator.get().markDirty(pane, animatedCard.getX(), animatedCard.getY(),
+                animatedCard.getWidth(), animatedCard.getHeight());
         });
-        
-        timer.start();
     }
 
     private void showFeedbackAnimation(boolean success, Point center) {
@@ -798,45 +920,38 @@ public class GameGUI extends JFrame {
         animationPanel.setBounds(center.x - 75, center.y - 75, 150, 150);
         layeredPane.add(animationPanel, JLayeredPane.POPUP_LAYER);
         
-        Timer timer = new Timer(16, null);
-        final long startTime = System.currentTimeMillis();
-        final int duration = 1000;
-        
-        timer.addActionListener(e -> {
-            long elapsed = System.currentTimeMillis() - startTime;
-            float progress = Math.min(1f, (float) elapsed / duration);
-            
-            // Use easing function for smooth animation
-            float easedProgress = (float) (1 - Math.pow(1 - progress, 3));
-            
+        JLayeredPane pane = layeredPane;
+
+        // Use easing function for smooth animation
+        Animator.get().tween(0, 1000, Animator.Easing.EASE_OUT_CUBIC, easedProgress -> {
             // Scale up and fade out
             int size = (int) (100 + 50 * easedProgress);
             float alpha = 1.0f - easedProgress;
             
             animationPanel.putClientProperty("size", size);
             animationPanel.putClientProperty("alpha", alpha);
-            animationPanel.repaint();
-            
-            if (progress >= 1f) {
-                timer.stop();
-                layeredPane.remove(animationPanel);
-                layeredPane.revalidate();
-                layeredPane.repaint();
-            }
+            Animator.get().markDirty(pane, animationPanel.getX(), animationPanel.getY(),
+                animationPanel.getWidth(), animationPanel.getHeight());
+        }, () -> {
+            pane.remove(animationPanel);
+            Animator.get().markDirty(pane, animationPanel.getX(), animationPanel.getY(),
+                animationPanel.getWidth(), animationPanel.getHeight());
         });
-        
-        timer.start();
     }
 
-    private void makeMove(String rank, Player targetPlayer) {
-        if (game != null && rank != null && targetPlayer != null) {
+    private void makeMove(String rank, int target) {
+        if (game != null && seated != null && rank != null) {
             Point center = new Point(
                 getWidth() / 2,
                 getHeight() / 2
             );
-            boolean hadCard = targetPlayer.hasCard(rank);
-            game.makeMove(rank, targetPlayer);
-            showFeedbackAnimation(hadCard, center);
+            int rankIndex = Card.rankIndex(rank);
+            boolean hadCard = (seated.getHand(target) & Player.rankMask(rankIndex)) != 0;
+            // Driven from the event thread alone, so the move has run by now;
+            // one the game turned down gets no feedback
+            if (!game.makeMove(seated.getCurrentPlayer(), rankIndex, target).isCompletedExceptionally()) {
+                showFeedbackAnimation(hadCard, center);
+            }
         }
     }
 
@@ -898,39 +1013,4 @@ public class GameGUI extends JFrame {
             g2d.dispose();
         }
     }
-
-    class CardAnimation {
-        private CardButton cardButton;
-        private Point start;
-        private Point end;
-        private int duration = 500; // milliseconds
-        private long startTime;
-
-        public CardAnimation(CardButton cardButton, Point start, Point end) {
-            this.cardButton = cardButton;
-            this.start = start;
-            this.end = end;
-        }
-
-        public void start() {
-            startTime = System.currentTimeMillis();
-            Timer timer = new Timer(16, new ActionListener() {
-                @Override
-                public void actionPerformed(ActionEvent e) {
-                    long currentTime = System.currentTimeMillis();
-                    float progress = (currentTime - startTime) / (float) duration;
-                    if (progress >= 1) {
-                        cardButton.setLocation(end);
-                        ((Timer) e.getSource()).stop();
-                    } else {
-                        int x = (int) (start.x + (end.x - start.x) * progress);
-                        int y = (int) (start.y + (end.y - start.y) * progress);
-                        cardButton.setLocation(x, y);
-                    }
-                    cardButton.getParent().repaint();
-                }
-            });
-            timer.start();
-        }
-    }
 }
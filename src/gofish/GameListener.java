@@ -0,0 +1,20 @@
+package gofish;
+
+// Receives game progress from Game. GameGUI is one implementation; headless runs
+// can attach nothing at all, in which case Game skips building log messages.
+// Calls come from whichever thread is running the game's commands, so
+// anything kept for later should be the snapshot, not the live game.
+public interface GameListener {
+    void updateGameState(GameSnapshot snapshot);
+
+    void appendToGameLog(String message);
+
+    void showGameOver(String message);
+
+    // A command queued from another thread threw while this thread was
+    // running the game's commands; see Game. Listeners that have somewhere
+    // better to show it override this.
+    default void commandFailed(RuntimeException error) {
+        System.err.println("Game command failed: " + error);
+    }
+}
@@ -0,0 +1,169 @@
+package gofish;
+
+import javax.swing.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// List model behind the game log view. Lines can be appended from any
+// thread; they queue up and are moved into the model once per animation
+// frame, so a burst of messages costs one list update instead of one per
+// line. The model keeps the newest lines in a ring buffer of fixed size.
+// Older lines are written to a spill file rather than dropped.
+//
+// -Dgofish.log.retain sets how many lines are kept in memory, and
+// -Dgofish.log.spill names the spill file. Without it a temporary file is
+// used and deleted on exit.
+final class GameLogModel extends AbstractListModel<String> {
+    static final int DEFAULT_RETENTION = 1000;
+
+    private final String[] lines;
+    private int head;
+    private int size;
+
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private Runnable onFlush;
+
+    private final Path configuredSpill;
+    private Path spillFile;
+    private BufferedWriter spill;
+    private long spilled;
+    private boolean spillFailed;
+    private boolean closed;
+
+    GameLogModel() {
+        this(Integer.getInteger("gofish.log.retain", DEFAULT_RETENTION),
+            System.getProperty("gofish.log.spill") == null ? null : Paths.get(System.getProperty("gofish.log.spill")));
+    }
+
+    // spillFile may be null for a temporary file
+    GameLogModel(int retention, Path spillFile) {
+        if (retention < 1) {
+            throw new IllegalArgumentException("Log retention must be at least one line: " + retention);
+        }
+        lines = new String[retention];
+        configuredSpill = spillFile;
+    }
+
+    // Called on the event thread after each batch of lines lands
+    void setOnFlush(Runnable onFlush) {
+        this.onFlush = onFlush;
+    }
+
+    // Safe from any thread
+    void append(String line) {
+        pending.add(line);
+        if (flushScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> Animator.get().after(0, this::flush));
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return lines[(head + index) % lines.length];
+    }
+
+    // Lines moved out of memory so far
+    long getSpilledCount() {
+        return spilled;
+    }
+
+    Path getSpillFile() {
+        return spillFile;
+    }
+
+    // Writes out anything queued and closes the spill file
+    void close() {
+        if (closed) return;
+        flush();
+        closed = true;
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                System.err.println("Could not close game log spill " + spillFile + ": " + e.getMessage());
+            }
+            spill = null;
+        }
+    }
+
+    private void flush() {
+        // Cleared first, so a line appended while draining schedules another flush
+        flushScheduled.set(false);
+        if (closed) {
+            pending.clear();
+            return;
+        }
+
+        int oldSize = size;
+        int evicted = 0;
+        for (String line; (line = pending.poll()) != null; ) {
+            if (size == lines.length) {
+                spill(lines[head]);
+                lines[head] = null;
+                head = (head + 1) % lines.length;
+                size--;
+                evicted++;
+            }
+            lines[(head + size) % lines.length] = line;
+            size++;
+        }
+        if (size == oldSize && evicted == 0) return;
+
+        if (spill != null && evicted > 0) {
+            try {
+                spill.flush();
+            } catch (IOException e) {
+                spillFailed(e);
+            }
+        }
+        if (size > oldSize) {
+            fireIntervalAdded(this, oldSize, size - 1);
+        }
+        if (evicted > 0) {
+            // Every row moved up, which costs the view no more than a repaint
+            fireContentsChanged(this, 0, size - 1);
+        }
+        if (onFlush != null) {
+            onFlush.run();
+        }
+    }
+
+    private void spill(String line) {
+        if (spillFailed) return;
+        try {
+            if (spill == null) {
+                if (configuredSpill != null) {
+                    spillFile = configuredSpill;
+                } else {
+                    spillFile = Files.createTempFile("gofish-log-", ".txt");
+                    spillFile.toFile().deleteOnExit();
+                }
+                spill = Files.newBufferedWriter(spillFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            spill.write(line);
+            spill.newLine();
+            spilled++;
+        } catch (IOException e) {
+            spillFailed(e);
+        }
+    }
+
+    // The log is only a view of the game, so a full disk drops old lines
+    // instead of stopping play
+    private void spillFailed(IOException e) {
+        spillFailed = true;
+        System.err.println("Game log spill to " + spillFile + " failed, dropping old lines: " + e.getMessage());
+    }
+}
@@ -0,0 +1,45 @@
+package gofish;
+
+import java.util.Random;
+
+// The game's Random. It produces exactly the sequence java.util.Random does
+// for the same seed, so seeded games replay as before, but its 48-bit state
+// can be read and set, which lets GameSave carry a game on mid-sequence.
+// Each instance is drawn from by one thread only (the game's, or a
+// MonteCarloStrategy worker's), so unlike Random it takes no locks.
+// nextGaussian's cached second value is not part of the state; the game
+// never asks for one.
+final class GameRandom extends Random {
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    GameRandom(long seed) {
+        // Random's constructor hands the seed to setSeed below
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    long getState() {
+        return state;
+    }
+
+    void setState(long state) {
+        if ((state & ~MASK) != 0) {
+            throw new IllegalArgumentException("Not a 48-bit random state: " + state);
+        }
+        this.state = state;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+}
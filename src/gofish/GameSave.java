@@ -0,0 +1,395 @@
+package gofish;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32C;
+
+// Saved games in progress. A save is one small binary record holding the
+// whole game, so loading is a read, a checksum and a few loops: well under a
+// millisecond. Game.save() encodes the live game, decode() turns a save
+// back into a Game to resume(), Slots keeps saves on disk so that a write
+// torn by a crash never costs the previous save, and Autosaver does the
+// writing on a background thread.
+//
+// Layout (little endian):
+//   0  int    MAGIC
+//   4  int    VERSION
+//   8  long   sequence, stamped by Slots; newer saves have higher numbers
+//   16 int    body length
+//   20 body:
+//        long  seed
+//        long  random state (GameRandom)
+//        byte  player count
+//        byte  flags (FLAG_DEMO, FLAG_ENDED)
+//        byte  demo rounds played
+//        byte  current seat
+//        byte  rank of the last AI ask, or -1
+//        byte  seat of the last AI ask, or -1
+//        per seat:
+//          long   hand mask
+//          byte   score
+//          byte   card code picked up last, or -1
+//          byte   1 for a human seat
+//          short  name length, then the name in UTF-8
+//          short  strategy name length, then the name in UTF-8
+//        byte  undrawn cards, then their codes in draw order
+//        int   event log length, then the log's bytes (EventLog.toByteArray)
+//   end-4 int CRC32C of everything before it
+//
+// Readers reject other versions outright; a format change bumps VERSION and
+// teaches decode the new layout alongside the old.
+public final class GameSave {
+    public static final int MAGIC = 0x47465356; // "GFSV"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 20;
+
+    public static final int FLAG_DEMO = 1;
+    public static final int FLAG_ENDED = 2;
+
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int CRC_SIZE = 4;
+    // A game's event log stays well under a kilobyte; anything near this is
+    // not a save
+    private static final int MAX_SIZE = 1 << 20;
+
+    private GameSave() {
+    }
+
+    // Runs on the game's command thread; see Game.save()
+    static byte[] encode(Game game, GameSnapshot position) {
+        int playerCount = position.getPlayerCount();
+        byte[][] names = new byte[playerCount][];
+        byte[][] strategies = new byte[playerCount][];
+        int size = HEADER_SIZE + 22;
+        for (int seat = 0; seat < playerCount; seat++) {
+            names[seat] = utf8(position.getName(seat));
+            strategies[seat] = utf8(game.getStrategy(seat).getName());
+            size += 15 + names[seat].length + strategies[seat].length;
+        }
+        byte[] deck = game.getDeckCodes();
+        byte[] log = game.getEventLog().toByteArray();
+        size += 1 + deck.length + 4 + log.length + CRC_SIZE;
+
+        ByteBuffer out = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putLong(0).putInt(size - HEADER_SIZE - CRC_SIZE);
+        out.putLong(game.getSeed());
+        out.putLong(game.getRandomState());
+        out.put((byte) playerCount);
+        out.put((byte) ((game.isDemoMode() ? FLAG_DEMO : 0) | (position.isGameEnded() ? FLAG_ENDED : 0)));
+        out.put((byte) game.getRoundsPlayed());
+        out.put((byte) position.getCurrentPlayer());
+        out.put((byte) (position.getLastAskedRank() == null ? -1 : Card.rankIndex(position.getLastAskedRank())));
+        out.put((byte) position.getLastTarget());
+        for (int seat = 0; seat < playerCount; seat++) {
+            Card lastAdded = position.getLastAddedCard(seat);
+            out.putLong(position.getHand(seat));
+            out.put((byte) position.getScore(seat));
+            out.put((byte) (lastAdded == null ? -1 : lastAdded.getCode()));
+            out.put((byte) (game.isHuman(seat) ? 1 : 0));
+            out.putShort((short) names[seat].length).put(names[seat]);
+            out.putShort((short) strategies[seat].length).put(strategies[seat]);
+        }
+        out.put((byte) deck.length).put(deck);
+        out.putInt(log.length).put(log);
+        out.putInt(checksum(out.array(), out.position()));
+        return out.array();
+    }
+
+    private static byte[] utf8(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Name too long to save: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    // A save that fails its checksum or does not describe a possible game is
+    // rejected with an IOException; it never comes back as a broken Game
+    public static Game decode(byte[] save) throws IOException {
+        if (save.length < HEADER_SIZE + CRC_SIZE || save.length > MAX_SIZE) {
+            throw new IOException("Not a save: " + save.length + " bytes");
+        }
+        ByteBuffer in = ByteBuffer.wrap(save).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not a save");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Save is version " + version + ", expected " + VERSION);
+        }
+        in.getLong();
+        if (in.getInt() != save.length - HEADER_SIZE - CRC_SIZE) {
+            throw new IOException("Save is truncated");
+        }
+        if (in.getInt(save.length - CRC_SIZE) != checksum(save, save.length - CRC_SIZE)) {
+            throw new IOException("Save is corrupt: checksum mismatch");
+        }
+        try {
+            return readBody(in.limit(save.length - CRC_SIZE));
+        } catch (BufferUnderflowException | IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("Save does not describe a game: " + e.getMessage(), e);
+        }
+    }
+
+    private static Game readBody(ByteBuffer in) throws IOException {
+        long seed = in.getLong();
+        long randomState = in.getLong();
+        int playerCount = in.get();
+        int flags = in.get();
+        int roundsPlayed = in.get();
+        int current = in.get();
+        int lastAskedRank = in.get();
+        int lastTarget = in.get();
+        if (playerCount < 2 || playerCount > Game.MAX_PLAYERS || current < 0 || current >= playerCount
+                || lastAskedRank < -1 || lastAskedRank >= Card.RANK_COUNT
+                || lastTarget < -1 || lastTarget >= playerCount || roundsPlayed < 0) {
+            throw new IOException("Save has an impossible table");
+        }
+
+        String[] names = new String[playerCount];
+        String[] strategies = new String[playerCount];
+        boolean[] isHuman = new boolean[playerCount];
+        long[] hands = new long[playerCount];
+        int[] scores = new int[playerCount];
+        int[] lastAdded = new int[playerCount];
+        // Every card is held, undrawn or in a completed set, exactly once
+        long seen = 0;
+        int cards = 0;
+        for (int seat = 0; seat < playerCount; seat++) {
+            hands[seat] = in.getLong();
+            scores[seat] = in.get();
+            lastAdded[seat] = in.get();
+            isHuman[seat] = in.get() != 0;
+            names[seat] = readString(in);
+            strategies[seat] = readString(in);
+            if (scores[seat] < 0 || lastAdded[seat] < -1 || lastAdded[seat] >= Card.DECK_SIZE
+                    || (hands[seat] & seen) != 0) {
+                throw new IOException("Save has an impossible hand for seat " + seat);
+            }
+            seen |= hands[seat];
+            cards += Long.bitCount(hands[seat]) + scores[seat] * Card.SUIT_COUNT;
+        }
+        byte[] deck = new byte[in.get() & 0xFF];
+        in.get(deck);
+        for (byte code : deck) {
+            long bit = 1L << code;
+            if (code < 0 || code >= Card.DECK_SIZE || (seen & bit) != 0) {
+                throw new IOException("Save has an impossible deck");
+            }
+            seen |= bit;
+        }
+        cards += deck.length;
+        if (cards != Card.DECK_SIZE || (seen >>> Card.DECK_SIZE) != 0) {
+            throw new IOException("Save accounts for " + cards + " cards");
+        }
+
+        int logLength = in.getInt();
+        if (logLength < 0 || logLength != in.remaining()) {
+            throw new IOException("Save has a truncated event log");
+        }
+        byte[] logBytes = new byte[logLength];
+        in.get(logBytes);
+        EventLog log = EventLog.fromBytes(logBytes);
+        if (!Arrays.equals(log.replayScores(playerCount), scores)) {
+            throw new IOException("Save's event log disagrees with its scores");
+        }
+
+        GameSnapshot position = new GameSnapshot(names, hands, scores, lastAdded, current, isHuman[current],
+            deck.length, lastAskedRank < 0 ? null : Card.RANKS[lastAskedRank], lastTarget,
+            (flags & FLAG_ENDED) != 0);
+        Game game = new Game(position, isHuman, (flags & FLAG_DEMO) != 0, roundsPlayed, seed, randomState,
+            deck, log);
+        // The card count above holds for any cards in place of the sets'; a
+        // completed rank's cards must be the ones not held or undrawn, or
+        // the game can never finish
+        int completedRanks = game.getKnowledge().getCompletedRanks();
+        for (int rankIndex = 0; rankIndex < Card.RANK_COUNT; rankIndex++) {
+            if ((completedRanks & 1 << rankIndex) != 0 && (seen & Player.rankMask(rankIndex)) != 0) {
+                throw new IOException("Save still deals out cards of completed " + Card.RANKS[rankIndex] + "s");
+            }
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            game.setStrategy(seat, strategy(strategies[seat]));
+        }
+        return game;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // A strategy plugin that is no longer installed should not cost the
+    // player their game, so its seats fall back to the default
+    private static Strategy strategy(String name) {
+        try {
+            return Strategies.forName(name);
+        } catch (IllegalArgumentException e) {
+            return Strategies.SIMPLE;
+        }
+    }
+
+    private static int checksum(byte[] bytes, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    private static long sequence(byte[] save) {
+        return ByteBuffer.wrap(save).order(ByteOrder.LITTLE_ENDIAN).getLong(SEQUENCE_OFFSET);
+    }
+
+    // Two save files used in turn (base.a and base.b). Each write replaces the
+    // older one and is forced to disk, so a crash mid-write leaves the other
+    // intact; load takes the newest slot that checks out.
+    public static final class Slots {
+        private final Path[] paths;
+        private long sequence;
+
+        public Slots(Path base) {
+            paths = new Path[] {
+                base.resolveSibling(base.getFileName() + ".a"),
+                base.resolveSibling(base.getFileName() + ".b")
+            };
+            for (Path path : paths) {
+                byte[] save = readValid(path);
+                if (save != null) {
+                    sequence = Math.max(sequence, sequence(save));
+                }
+            }
+        }
+
+        // The newest save that decodes, or null if there is none
+        public synchronized Game load() {
+            Game newest = null;
+            long newestSequence = -1;
+            for (Path path : paths) {
+                byte[] save = readValid(path);
+                if (save == null || sequence(save) <= newestSequence) continue;
+                try {
+                    newest = decode(save);
+                    newestSequence = sequence(save);
+                } catch (IOException e) {
+                    System.err.println("Ignoring save " + path + ": " + e.getMessage());
+                }
+            }
+            return newest;
+        }
+
+        // Takes a save from Game.save(); the array is left as it was
+        public synchronized void write(byte[] save) throws IOException {
+            byte[] stamped = save.clone();
+            ByteBuffer buffer = ByteBuffer.wrap(stamped).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(SEQUENCE_OFFSET, sequence + 1);
+            buffer.putInt(stamped.length - CRC_SIZE, checksum(stamped, stamped.length - CRC_SIZE));
+
+            Path path = paths[(int) ((sequence + 1) & 1)];
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            sequence++;
+        }
+
+        public synchronized void clear() throws IOException {
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        }
+
+        // The slot's bytes if its header and checksum are intact
+        private static byte[] readValid(Path path) {
+            try {
+                if (Files.size(path) > MAX_SIZE) return null;
+                byte[] save = Files.readAllBytes(path);
+                ByteBuffer in = ByteBuffer.wrap(save).order(ByteOrder.LITTLE_ENDIAN);
+                if (save.length < HEADER_SIZE + CRC_SIZE || in.getInt(0) != MAGIC
+                        || in.getInt(save.length - CRC_SIZE) != checksum(save, save.length - CRC_SIZE)) {
+                    return null;
+                }
+                return save;
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                System.err.println("Cannot read save " + path + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    // Writes saves to Slots on its own thread, so the thread driving the
+    // game only pays for Game.save()'s encoding. Saves that arrive while a
+    // write is under way collapse into the newest one, and a save identical
+    // to the last one written is skipped, so saving on a timer costs nothing
+    // while the game sits idle.
+    public static final class Autosaver implements Closeable {
+        private final Slots slots;
+        private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gofish-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final AtomicReference<byte[]> pending = new AtomicReference<>();
+        // Writer thread only
+        private byte[] lastWritten;
+
+        public Autosaver(Slots slots) {
+            this.slots = slots;
+        }
+
+        public void save(Game game) {
+            game.save().thenAccept(this::submit);
+        }
+
+        private void submit(byte[] save) {
+            if (pending.getAndSet(save) == null) {
+                writer.execute(this::writePending);
+            }
+        }
+
+        private void writePending() {
+            byte[] save = pending.getAndSet(null);
+            if (save == null || Arrays.equals(save, lastWritten)) return;
+            try {
+                slots.write(save);
+                lastWritten = save;
+            } catch (IOException e) {
+                // Autosave is a convenience; a full disk must not stop play
+                System.err.println("Autosave failed: " + e.getMessage());
+            }
+        }
+
+        // Waits briefly for the last save to reach the disk
+        @Override
+        public void close() {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package gofish;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Hosts Go Fish tables for remote players, speaking the binary protocol in
+// Protocol. One thread runs a selector over every connection and plays the
+// games as well: a move is a few microseconds of work, far less than a
+// network round trip, so thousands of tables share the thread with no locks.
+// Replies are collected per connection while a batch of reads is handled and
+// written once at the end of it.
+//
+// The simple and memory AIs decide in a few microseconds too and play on
+// the server thread. Any other strategy may search for tens of milliseconds,
+// so its tables defer their AI decisions to a pool of worker threads, and
+// the moves come back to the server thread through a queue. Until its move
+// arrives the server thread only turns down moves out of turn at that table
+// and hands leaving players' seats to the AI, neither of which changes what
+// the deciding strategy reads.
+//
+// The server is the only one that knows the deck and the hands. Moves from
+// the network go through Game.makeMove(seat, rank, target), which checks
+// them against the rules, and each client is only told its own cards.
+//
+// Players are matched by the table size and number of remote players they
+// ask for, and a table starts once it has them all; AI seats fill the rest.
+// A player who disconnects mid-game is handed over to the AI, and a table
+// with no remote players left is dropped. A table whose game throws is
+// closed and its players cut off; the other tables play on.
+public final class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 7777;
+
+    private static final int BACKLOG = 1024;
+    private static final int READ_BUFFER_BYTES = 256;
+    private static final int WRITE_BUFFER_BYTES = 512;
+    // A client that lets this much output pile up is cut off
+    private static final int MAX_PENDING_OUTPUT = 1 << 20;
+    private static final int MAX_EVENTS_PER_FRAME = (Protocol.MAX_FRAME - 1) / 2;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Strategy aiStrategy;
+    // Null when the AI decides on the server thread
+    private final ExecutorService deciders;
+    private final Queue<Decision> decided = new ConcurrentLinkedQueue<>();
+    private final Random random = new Random();
+    // Tables still waiting for players, by players << 8 | humans
+    private final Map<Integer, Table> waiting = new HashMap<>();
+    private final List<Connection> pendingWrites = new ArrayList<>();
+    private volatile boolean running = true;
+    private volatile boolean started;
+
+    // Written by the server thread only
+    private volatile int connections;
+    private volatile int activeTables;
+    private volatile long gamesCompleted;
+    private volatile long movesPlayed;
+    private volatile long movesRejected;
+
+    private static final class Table {
+        final Connection[] seats;
+        final int humans;
+        int joined;
+        Game game;
+        int sentEvents;
+        // Set once the table is dropped, so a move decided for it is ignored
+        boolean closed;
+
+        Table(int players, int humans) {
+            seats = new Connection[players];
+            this.humans = humans;
+        }
+    }
+
+    // An AI move chosen on a worker, or the reason it could not be
+    private record Decision(Table table, Move move, RuntimeException error) {
+    }
+
+    private final class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        // In write mode between flushes
+        ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        boolean writeQueued;
+        boolean closed;
+        Table table;
+        int seat;
+
+        Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.key = channel.register(selector, SelectionKey.OP_READ, this);
+        }
+
+        // Room for a frame of payloadBytes, with its header already written
+        ByteBuffer frame(byte type, int payloadBytes) {
+            int bytes = Protocol.frameBytes(payloadBytes);
+            if (out.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + bytes));
+                out.flip();
+                larger.put(out);
+                out = larger;
+            }
+            if (!writeQueued) {
+                writeQueued = true;
+                pendingWrites.add(this);
+            }
+            Protocol.beginFrame(out, type, payloadBytes);
+            return out;
+        }
+    }
+
+    // Port 0 picks a free port; see getPort
+    public GameServer(int port, Strategy aiStrategy) throws IOException {
+        this.aiStrategy = aiStrategy;
+        selector = Selector.open();
+        if (aiStrategy == Strategies.SIMPLE || aiStrategy == Strategies.MEMORY) {
+            deciders = null;
+        } else {
+            deciders = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "gofish-server-ai");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(new InetSocketAddress(port), BACKLOG);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            if (deciders != null) {
+                deciders.shutdownNow();
+            }
+            throw e;
+        }
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public int getActiveTables() {
+        return activeTables;
+    }
+
+    public long getGamesCompleted() {
+        return gamesCompleted;
+    }
+
+    public long getMovesPlayed() {
+        return movesPlayed;
+    }
+
+    public long getMovesRejected() {
+        return movesRejected;
+    }
+
+    // Serves until close is called, on the calling thread
+    public void run() throws IOException {
+        started = true;
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(connection);
+                        }
+                    } catch (IOException e) {
+                        disconnect(connection);
+                    } catch (RuntimeException e) {
+                        abandon(connection, e);
+                    }
+                }
+                applyDecisions();
+                flushWrites();
+            }
+        } finally {
+            closeAll();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        if (!started) {
+            closeAll();
+        }
+    }
+
+    private void closeAll() throws IOException {
+        if (deciders != null) {
+            deciders.shutdownNow();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            new Connection(channel);
+            connections++;
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        if (connection.channel.read(in) < 0) {
+            disconnect(connection);
+            return;
+        }
+        in.flip();
+        int length;
+        while (!connection.closed && (length = Protocol.nextFrame(in, Protocol.MAX_CLIENT_FRAME)) >= 0) {
+            int end = in.position() + Protocol.HEADER_BYTES + length;
+            in.position(in.position() + Protocol.HEADER_BYTES);
+            byte type = in.get();
+            handle(connection, type, in, length - 1);
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    private void handle(Connection connection, byte type, ByteBuffer payload, int payloadBytes) throws IOException {
+        switch (type) {
+            case Protocol.JOIN -> {
+                if (payloadBytes != 2) throw new IOException("Bad JOIN frame");
+                int players = payload.get() & 0xFF;
+                int humans = payload.get() & 0xFF;
+                if (connection.table != null) {
+                    reject(connection, "Already at a table");
+                } else if (players < 2 || players > Game.MAX_PLAYERS || humans < 1 || humans > players) {
+                    reject(connection, "Cannot seat " + humans + " of " + players + " players");
+                } else {
+                    join(connection, players, humans);
+                }
+            }
+            case Protocol.ASK -> {
+                if (payloadBytes != 2) throw new IOException("Bad ASK frame");
+                int rankIndex = payload.get() & 0xFF;
+                int target = payload.get() & 0xFF;
+                Table table = connection.table;
+                if (table == null || table.game == null) {
+                    reject(connection, "Not in a game");
+                    return;
+                }
+                // This thread is the only one driving its games, so the
+                // move has been played or turned down by the time this returns
+                try {
+                    table.game.makeMove(connection.seat, rankIndex, target).join();
+                } catch (CompletionException e) {
+                    movesRejected++;
+                    reject(connection, e.getCause().getMessage());
+                    return;
+                }
+                movesPlayed++;
+                publish(table);
+            }
+            default -> throw new IOException("Unknown message type " + type);
+        }
+    }
+
+    private void join(Connection connection, int players, int humans) {
+        int key = players << 8 | humans;
+        Table table = waiting.get(key);
+        if (table == null) {
+            table = new Table(players, humans);
+            waiting.put(key, table);
+        }
+        connection.table = table;
+        connection.seat = table.joined;
+        table.seats[table.joined++] = connection;
+        if (table.joined == humans) {
+            waiting.remove(key);
+            start(table);
+        }
+    }
+
+    private void start(Table table) {
+        int players = table.seats.length;
+        String[] names = new String[players];
+        boolean[] isHuman = new boolean[players];
+        for (int seat = 0; seat < players; seat++) {
+            isHuman[seat] = seat < table.humans;
+            names[seat] = (isHuman[seat] ? "Player " : "AI ") + (seat + 1);
+        }
+        table.game = new Game(names, isHuman, false, random.nextLong());
+        table.game.setDeferDecisions(deciders != null);
+        activeTables++;
+        for (int seat = table.humans; seat < players; seat++) {
+            table.game.setStrategy(seat, aiStrategy);
+        }
+
+        for (int seat = 0; seat < table.humans; seat++) {
+            ByteBuffer out = table.seats[seat].frame(Protocol.SEATED, 2);
+            out.put((byte) seat);
+            out.put((byte) players);
+        }
+        table.game.play();
+        publish(table);
+    }
+
+    // Sends every remote player the events since the last publish, then
+    // either the next turn or the final scores
+    private void publish(Table table) {
+        Game game = table.game;
+        EventLog log = game.getEventLog();
+        int from = table.sentEvents;
+        int to = log.size();
+        table.sentEvents = to;
+        for (Connection connection : table.seats) {
+            if (connection != null) {
+                sendEvents(connection, log, from, to);
+            }
+        }
+
+        if (game.isGameEnded()) {
+            List<Player> players = game.getPlayers();
+            for (Connection connection : table.seats) {
+                if (connection == null) continue;
+                ByteBuffer out = connection.frame(Protocol.GAME_OVER, players.size());
+                for (Player player : players) {
+                    out.put((byte) (int) game.getScores().get(player));
+                }
+                connection.table = null;
+            }
+            activeTables--;
+            gamesCompleted++;
+        } else if (game.isAwaitingDecision()) {
+            decide(table);
+        } else {
+            // Otherwise the turn loop only stops early for a remote seat
+            int current = game.getCurrentPlayerIndex();
+            ByteBuffer out = table.seats[current].frame(Protocol.YOUR_TURN, 8);
+            out.putLong(game.getPlayers().get(current).getHandBits());
+        }
+    }
+
+    private void decide(Table table) {
+        Game game = table.game;
+        deciders.execute(() -> {
+            Decision decision;
+            try {
+                int seat = game.getCurrentPlayerIndex();
+                decision = new Decision(table, game.getStrategy(seat).chooseMove(game, seat), null);
+            } catch (RuntimeException e) {
+                decision = new Decision(table, null, e);
+            }
+            decided.add(decision);
+            selector.wakeup();
+        });
+    }
+
+    // Plays the moves the workers have chosen since the last pass. A table
+    // closed in the meantime has nothing left to play.
+    private void applyDecisions() {
+        Decision decision;
+        while ((decision = decided.poll()) != null) {
+            Table table = decision.table();
+            if (table.closed) continue;
+            try {
+                if (decision.error() != null) {
+                    throw decision.error();
+                }
+                table.game.submitMove(decision.move());
+                publish(table);
+            } catch (RuntimeException e) {
+                closeTable(table, e);
+            }
+        }
+    }
+
+    private void sendEvents(Connection connection, EventLog log, int from, int to) {
+        while (from < to) {
+            int count = Math.min(to - from, MAX_EVENTS_PER_FRAME);
+            ByteBuffer out = connection.frame(Protocol.EVENTS, count * 2);
+            for (int event = from; event < from + count; event++) {
+                int type = log.getType(event);
+                int player = log.getPlayer(event);
+                int data = log.getData(event);
+                // Only the player who took a card from the deck sees it
+                if ((type == EventLog.DEAL || type == EventLog.DRAW) && player != connection.seat) {
+                    data = Protocol.HIDDEN_CARD;
+                }
+                out.put((byte) (type << 4 | player));
+                out.put((byte) data);
+            }
+            from += count;
+        }
+    }
+
+    private void reject(Connection connection, String reason) {
+        byte[] text = reason.getBytes(StandardCharsets.UTF_8);
+        connection.frame(Protocol.REJECTED, text.length).put(text);
+    }
+
+    private void flushWrites() {
+        // Disconnects can queue more writes for the rest of a table
+        for (int i = 0; i < pendingWrites.size(); i++) {
+            Connection connection = pendingWrites.get(i);
+            connection.writeQueued = false;
+            if (connection.closed) continue;
+            try {
+                write(connection);
+            } catch (IOException e) {
+                disconnect(connection);
+            }
+        }
+        pendingWrites.clear();
+    }
+
+    private void write(Connection connection) throws IOException {
+        ByteBuffer out = connection.out;
+        out.flip();
+        connection.channel.write(out);
+        out.compact();
+        if (out.position() == 0) {
+            connection.key.interestOps(SelectionKey.OP_READ);
+        } else if (out.position() > MAX_PENDING_OUTPUT) {
+            throw new IOException("Client is not reading");
+        } else {
+            // The socket is full; finish when it drains
+            connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.closed) return;
+        connection.closed = true;
+        connections--;
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Nothing more to do for a connection that is going anyway
+        }
+
+        Table table = connection.table;
+        if (table == null) return;
+        connection.table = null;
+        if (table.game == null) {
+            // Still waiting: close the gap so seats stay in join order
+            System.arraycopy(table.seats, connection.seat + 1, table.seats, connection.seat,
+                table.joined - connection.seat - 1);
+            table.seats[--table.joined] = null;
+            for (int seat = connection.seat; seat < table.joined; seat++) {
+                table.seats[seat].seat = seat;
+            }
+            if (table.joined == 0) {
+                waiting.remove(table.seats.length << 8 | table.humans);
+            }
+            return;
+        }
+
+        table.seats[connection.seat] = null;
+        for (Connection other : table.seats) {
+            if (other != null) {
+                // Play only moves on if the table was waiting for this seat
+                boolean wasTheirTurn = table.game.getCurrentPlayerIndex() == connection.seat;
+                try {
+                    table.game.handOverToAI(connection.seat);
+                    if (wasTheirTurn) {
+                        publish(table);
+                    }
+                } catch (RuntimeException e) {
+                    closeTable(table, e);
+                }
+                return;
+            }
+        }
+        table.closed = true;
+        activeTables--;
+    }
+
+    // Something a connection sent made its game throw. The game cannot be
+    // trusted to carry on, so the whole table goes.
+    private void abandon(Connection connection, RuntimeException e) {
+        Table table = connection.table;
+        if (table != null) {
+            closeTable(table, e);
+        }
+        disconnect(connection);
+    }
+
+    private void closeTable(Table table, RuntimeException e) {
+        System.err.println("Closing a table after an error: " + e);
+        table.closed = true;
+        for (Connection seated : table.seats) {
+            if (seated != null) {
+                seated.table = null;
+                disconnect(seated);
+            }
+        }
+        if (table.game == null) {
+            waiting.remove(table.seats.length << 8 | table.humans, table);
+        } else {
+            activeTables--;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Strategy aiStrategy = args.length > 1 ? Strategies.forName(args[1]) : Strategies.SIMPLE;
+        try (GameServer server = new GameServer(port, aiStrategy)) {
+            System.out.printf("Go Fish server on port %d, AI seats play %s%n", server.getPort(), aiStrategy.getName());
+            server.run();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package gofish;
+
+// Immutable picture of a game at one moment, for everything outside the
+// thread currently running the game's commands: listeners, the GUI, network
+// threads. Game hands one to its listener with every update and publishes the
+// newest after each batch of commands (Game.getLatestSnapshot), so readers
+// never touch the live Player objects while the game is changing them.
+public final class GameSnapshot {
+    private final String[] names;
+    private final long[] hands;
+    private final int[] scores;
+    // Card code of the card each player picked up last, or -1
+    private final int[] lastAdded;
+    private final int current;
+    private final boolean humanTurn;
+    private final int deckSize;
+    private final String lastAskedRank;
+    private final int lastTarget;
+    private final boolean gameEnded;
+
+    // Takes ownership of the arrays
+    GameSnapshot(String[] names, long[] hands, int[] scores, int[] lastAdded, int current,
+                 boolean humanTurn, int deckSize, String lastAskedRank, int lastTarget, boolean gameEnded) {
+        this.names = names;
+        this.hands = hands;
+        this.scores = scores;
+        this.lastAdded = lastAdded;
+        this.current = current;
+        this.humanTurn = humanTurn;
+        this.deckSize = deckSize;
+        this.lastAskedRank = lastAskedRank;
+        this.lastTarget = lastTarget;
+        this.gameEnded = gameEnded;
+    }
+
+    public int getPlayerCount() {
+        return names.length;
+    }
+
+    public String getName(int seat) {
+        return names[seat];
+    }
+
+    // Seat of the named player, or -1
+    public int seatOf(String name) {
+        for (int seat = 0; seat < names.length; seat++) {
+            if (names[seat].equals(name)) return seat;
+        }
+        return -1;
+    }
+
+    // The seat's cards as a Player hand mask
+    public long getHand(int seat) {
+        return hands[seat];
+    }
+
+    public int getHandSize(int seat) {
+        return Long.bitCount(hands[seat]);
+    }
+
+    public int getScore(int seat) {
+        return scores[seat];
+    }
+
+    public Card getLastAddedCard(int seat) {
+        return lastAdded[seat] < 0 ? null : Card.of(lastAdded[seat]);
+    }
+
+    public int getCurrentPlayer() {
+        return current;
+    }
+
+    public boolean isHumanTurn() {
+        return humanTurn;
+    }
+
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    // The last AI ask, or null if the AI drew instead
+    public String getLastAskedRank() {
+        return lastAskedRank;
+    }
+
+    // Seat the last AI ask went to, or -1
+    public int getLastTarget() {
+        return lastTarget;
+    }
+
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+}
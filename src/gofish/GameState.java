@@ -0,0 +1,334 @@
+package gofish;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Compact, copyable game position for search. Hands are card masks, the deck
+// is a byte array of card codes and everything else is a handful of ints; a
+// four-seat state is around two hundred bytes.
+//
+// The deck is shared: it is never written after setDeck, and drawing only
+// moves deckTop, so copies point at the same array and copyFrom is three
+// small array copies. Moves can be taken back: push opens a checkpoint,
+// after which every field a move changes is logged with its old value, and
+// undo restores them. Nothing is logged while no checkpoint is open, so
+// rollouts pay only for a branch.
+//
+// The rules match Game: a player with an empty hand draws at the start of
+// their turn, an ask either takes every card of the rank or draws one card,
+// a set is scored the moment its fourth card lands, and the turn always
+// passes on afterwards.
+public final class GameState {
+    private static final byte[] NO_CARDS = new byte[0];
+
+    // Undo log slots are kind << 8 | seat
+    private static final int HAND = 0;
+    private static final int SCORE = 1;
+    private static final int KNOWN_HAS = 2;
+    private static final int DECK_TOP = 3;
+    private static final int CURRENT = 4;
+    private static final int COMPLETED = 5;
+
+    private final int playerCount;
+    private final long[] hands;
+    private final int[] scores;
+    private final int[] knownHas;
+    private byte[] deck = NO_CARDS;
+    private int deckTop;
+    private int deckEnd;
+    private int current;
+    private int completedRanks;
+
+    // Allocated on the first push
+    private int[] undoSlots;
+    private long[] undoValues;
+    private int undoSize;
+    private int[] checkpoints;
+    private int checkpointCount;
+
+    public GameState(int playerCount) {
+        this.playerCount = playerCount;
+        this.hands = new long[playerCount];
+        this.scores = new int[playerCount];
+        this.knownHas = new int[playerCount];
+    }
+
+    public GameState copy() {
+        GameState copy = new GameState(playerCount);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    // Takes over other's position but none of its undo history
+    public void copyFrom(GameState other) {
+        System.arraycopy(other.hands, 0, hands, 0, playerCount);
+        System.arraycopy(other.scores, 0, scores, 0, playerCount);
+        System.arraycopy(other.knownHas, 0, knownHas, 0, playerCount);
+        deck = other.deck;
+        deckTop = other.deckTop;
+        deckEnd = other.deckEnd;
+        current = other.current;
+        completedRanks = other.completedRanks;
+        undoSize = 0;
+        checkpointCount = 0;
+    }
+
+    public void setHand(int seat, long cards) {
+        if (checkpointCount > 0) log(HAND << 8 | seat, hands[seat]);
+        hands[seat] = cards;
+    }
+
+    public void setScore(int seat, int score) {
+        if (checkpointCount > 0) log(SCORE << 8 | seat, scores[seat]);
+        scores[seat] = score;
+    }
+
+    // Ranks the table knows the seat holds, as in RankKnowledge
+    public void setKnownHas(int seat, int ranks) {
+        if (checkpointCount > 0) log(KNOWN_HAS << 8 | seat, knownHas[seat]);
+        knownHas[seat] = ranks;
+    }
+
+    // Cards are drawn from codes[0] onwards. The state keeps its own copy,
+    // which copies of it then share.
+    public void setDeck(byte[] codes, int count) {
+        if (checkpointCount > 0) {
+            throw new IllegalStateException("Cannot replace the deck while a move can be undone");
+        }
+        deck = Arrays.copyOf(codes, count);
+        deckTop = 0;
+        deckEnd = count;
+    }
+
+    public void setCurrent(int seat) {
+        if (checkpointCount > 0) log(CURRENT << 8, current);
+        current = seat;
+    }
+
+    public void setCompletedRanks(int completedRanks) {
+        if (checkpointCount > 0) log(COMPLETED << 8, this.completedRanks);
+        this.completedRanks = completedRanks;
+    }
+
+    // Starts a checkpoint; the next undo takes the state back to here.
+    // Checkpoints nest, one per move on a search path.
+    public void push() {
+        if (checkpoints == null) {
+            checkpoints = new int[16];
+            undoSlots = new int[64];
+            undoValues = new long[64];
+        } else if (checkpointCount == checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+        }
+        checkpoints[checkpointCount++] = undoSize;
+    }
+
+    // Reverts everything since the matching push. A move touches a bounded
+    // number of fields, so this is constant time per move.
+    public void undo() {
+        if (checkpointCount == 0) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        int mark = checkpoints[--checkpointCount];
+        while (undoSize > mark) {
+            undoSize--;
+            int seat = undoSlots[undoSize] & 0xFF;
+            long value = undoValues[undoSize];
+            switch (undoSlots[undoSize] >>> 8) {
+                case HAND -> hands[seat] = value;
+                case SCORE -> scores[seat] = (int) value;
+                case KNOWN_HAS -> knownHas[seat] = (int) value;
+                case DECK_TOP -> deckTop = (int) value;
+                case CURRENT -> current = (int) value;
+                default -> completedRanks = (int) value;
+            }
+        }
+    }
+
+    public int getUndoDepth() {
+        return checkpointCount;
+    }
+
+    private void log(int slot, long oldValue) {
+        if (undoSize == undoSlots.length) {
+            undoSlots = Arrays.copyOf(undoSlots, undoSize * 2);
+            undoValues = Arrays.copyOf(undoValues, undoSize * 2);
+        }
+        undoSlots[undoSize] = slot;
+        undoValues[undoSize] = oldValue;
+        undoSize++;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public long getHand(int seat) {
+        return hands[seat];
+    }
+
+    public int getScore(int seat) {
+        return scores[seat];
+    }
+
+    public int getKnownHas(int seat) {
+        return knownHas[seat];
+    }
+
+    public int getDeckSize() {
+        return deckEnd - deckTop;
+    }
+
+    public int getCurrent() {
+        return current;
+    }
+
+    public int getCompletedRanks() {
+        return completedRanks;
+    }
+
+    public boolean isOver() {
+        if (deckTop < deckEnd) return false;
+        for (int seat = 0; seat < playerCount; seat++) {
+            if (hands[seat] != 0) return false;
+        }
+        return true;
+    }
+
+    // The current player asks target for a rank, then the turn passes on
+    public void ask(int rankIndex, int target) {
+        setKnownHas(current, knownHas[current] | 1 << rankIndex);
+        setKnownHas(target, knownHas[target] & ~(1 << rankIndex));
+        long cards = hands[target] & Player.rankMask(rankIndex);
+        if (cards != 0) {
+            setHand(target, hands[target] & ~cards);
+            setHand(current, hands[current] | cards);
+            scoreIfComplete(current, rankIndex);
+        } else {
+            draw(current);
+        }
+        nextTurn();
+    }
+
+    // The current player has no one to ask, so they draw and the turn passes
+    public void drawInstead() {
+        draw(current);
+        nextTurn();
+    }
+
+    // Plays one turn the way MemoryAI would in its simplest form: ask a seat
+    // known to hold one of our ranks if there is one, otherwise ask a random
+    // opponent for a random rank from the hand
+    public void playRandomTurn(RandomGenerator random) {
+        long hand = hands[current];
+        int held = heldRanks(hand);
+        for (int seat = 0; seat < playerCount; seat++) {
+            int known = knownHas[seat] & held;
+            if (seat != current && known != 0 && hands[seat] != 0) {
+                ask(Integer.numberOfTrailingZeros(known), seat);
+                return;
+            }
+        }
+
+        int targets = 0;
+        for (int seat = 0; seat < playerCount; seat++) {
+            if (seat != current && hands[seat] != 0) targets++;
+        }
+        if (targets == 0) {
+            drawInstead();
+            return;
+        }
+
+        int pick = random.nextInt(targets);
+        int target = 0;
+        for (int seat = 0; seat < playerCount; seat++) {
+            if (seat != current && hands[seat] != 0 && pick-- == 0) {
+                target = seat;
+                break;
+            }
+        }
+
+        long card = hand;
+        for (int skip = random.nextInt(Long.bitCount(hand)); skip > 0; skip--) {
+            card &= card - 1;
+        }
+        ask(Long.numberOfTrailingZeros(card) / Card.SUIT_COUNT, target);
+    }
+
+    // Plays random turns to the end. Random asks can in principle pass cards
+    // back and forth forever, so a rollout gives up after maxTurns.
+    public void playOut(RandomGenerator random, int maxTurns) {
+        for (int turn = 0; turn < maxTurns && !isOver(); turn++) {
+            playRandomTurn(random);
+        }
+    }
+
+    // True if some hand holds all four cards of a rank. Real games score a
+    // set as soon as it is complete, so such a position can only come from
+    // an unlucky determinization.
+    public boolean hasUnscoredSet() {
+        for (int seat = 0; seat < playerCount; seat++) {
+            long hand = hands[seat];
+            // A nibble is full when all four of its bits are set
+            long full = hand & hand >>> 1 & hand >>> 2 & hand >>> 3 & 0x1111111111111L;
+            if (full != 0) return true;
+        }
+        return false;
+    }
+
+    // Scores every complete rank still sitting in a hand
+    public void scoreCompleteSets() {
+        for (int seat = 0; seat < playerCount; seat++) {
+            for (int rankIndex = 0; rankIndex < Card.RANK_COUNT; rankIndex++) {
+                scoreIfComplete(seat, rankIndex);
+            }
+        }
+    }
+
+    private void draw(int seat) {
+        if (deckTop < deckEnd) {
+            if (checkpointCount > 0) log(DECK_TOP << 8, deckTop);
+            int code = deck[deckTop++];
+            setHand(seat, hands[seat] | 1L << code);
+            scoreIfComplete(seat, code / Card.SUIT_COUNT);
+        }
+    }
+
+    private void scoreIfComplete(int seat, int rankIndex) {
+        long rank = Player.rankMask(rankIndex);
+        if ((hands[seat] & rank) == rank) {
+            setHand(seat, hands[seat] & ~rank);
+            setScore(seat, scores[seat] + 1);
+            setCompletedRanks(completedRanks | 1 << rankIndex);
+            for (int i = 0; i < playerCount; i++) {
+                if ((knownHas[i] & 1 << rankIndex) != 0) {
+                    setKnownHas(i, knownHas[i] & ~(1 << rankIndex));
+                }
+            }
+        }
+    }
+
+    // Folds each rank nibble of a hand mask down to one bit per rank
+    private static int heldRanks(long hand) {
+        long any = (hand | hand >>> 1 | hand >>> 2 | hand >>> 3) & 0x1111111111111L;
+        int ranks = 0;
+        for (; any != 0; any &= any - 1) {
+            ranks |= 1 << Long.numberOfTrailingZeros(any) / Card.SUIT_COUNT;
+        }
+        return ranks;
+    }
+
+    // Moves to the next seat that can act: players with an empty hand draw
+    // first, and are skipped if the deck is empty too
+    private void nextTurn() {
+        for (int i = 0; i < playerCount && !isOver(); i++) {
+            setCurrent((current + 1) % playerCount);
+            if (hands[current] == 0) {
+                draw(current);
+            }
+            if (hands[current] != 0) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package gofish;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Log-linear histogram of nanosecond latencies in the style of HdrHistogram.
+// Every power of two is split into eight buckets, so a recorded value is
+// known to within 12.5%. The whole range of a long fits in 488 buckets.
+//
+// Many threads can record into one histogram without contending: each
+// records into a stripe of its own, with a couple of shifts and plain
+// release stores, no locks or atomic read-modify-writes, and no allocation
+// after its first value. Reads merge the stripes, so they cost a pass over
+// every thread's buckets, and one taken while threads record is not an
+// exact snapshot.
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    private final ThreadLocal<Stripe> local = new ThreadLocal<>();
+    private final Queue<Stripe> stripes = new ConcurrentLinkedQueue<>();
+
+    // Written by its own thread only, so an add needs no atomic update;
+    // reset retires it and the thread starts a new one
+    private static final class Stripe {
+        final AtomicLongArray counts = new AtomicLongArray(BUCKETS + 1);
+        volatile boolean retired;
+
+        void add(int bucket, long value) {
+            counts.setRelease(bucket, counts.getPlain(bucket) + 1);
+            counts.setRelease(BUCKETS, counts.getPlain(BUCKETS) + value);
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        Stripe stripe = local.get();
+        if (stripe == null || stripe.retired) {
+            stripe = new Stripe();
+            local.set(stripe);
+            stripes.add(stripe);
+        }
+        stripe.add(bucketOf(value), value);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                count += stripe.counts.get(i);
+            }
+        }
+        return count;
+    }
+
+    public double getMean() {
+        long count = 0;
+        long sum = 0;
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                count += stripe.counts.get(i);
+            }
+            sum += stripe.counts.get(BUCKETS);
+        }
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), or 0
+    // if nothing has been recorded
+    public long getPercentile(double percentile) {
+        long[] counts = merge();
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueIn(i);
+            }
+        }
+        return highestValueIn(BUCKETS - 1);
+    }
+
+    public long getMax() {
+        long[] counts = merge();
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts[i] != 0) return highestValueIn(i);
+        }
+        return 0;
+    }
+
+    // Values recorded while this runs may land in a stripe it has already
+    // retired and be lost
+    public void reset() {
+        Iterator<Stripe> retiring = stripes.iterator();
+        while (retiring.hasNext()) {
+            retiring.next().retired = true;
+            retiring.remove();
+        }
+    }
+
+    private long[] merge() {
+        long[] counts = new long[BUCKETS];
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.counts.get(i);
+            }
+        }
+        return counts;
+    }
+
+    // Values below SUB_BUCKETS get a bucket each. Above that, the top bit
+    // picks the power of two and the next SUB_BITS bits the bucket within it.
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> exponent - SUB_BITS) & SUB_BUCKETS - 1;
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << exponent - SUB_BITS;
+        long width = 1L << exponent - SUB_BITS;
+        return lowest + width - 1;
+    }
+}
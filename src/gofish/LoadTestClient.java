@@ -0,0 +1,235 @@
+package gofish;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+
+// Load generator for GameServer. One selector thread drives many
+// connections, each joining tables and playing a random legal ask as soon
+// as it is its turn, and re-joining when a game ends. Reports turns per
+// second and the latency from sending an ask to the first byte of the reply.
+//
+//   LoadTestClient [--host h] [--port p] [--embedded] [connections] [seconds] [players] [humans]
+//
+// --embedded starts a server in this JVM on a free port. By default every
+// seat at a table is a remote player, so every turn crosses the network.
+public final class LoadTestClient {
+    private static final int READ_BUFFER_BYTES = Protocol.MAX_FRAME + Protocol.HEADER_BYTES;
+
+    private final Selector selector;
+    private final int players;
+    private final int humans;
+    private final SplittableRandom random = new SplittableRandom();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long turns;
+    // Each remote seat gets its own GAME_OVER
+    private long gameOvers;
+    private long rejected;
+    private int connectionsLost;
+
+    private final class Bot {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        final ByteBuffer out = ByteBuffer.allocate(64);
+        SelectionKey key;
+        int seat;
+        int tablePlayers;
+        long askedAt;
+
+        Bot(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    public LoadTestClient(int players, int humans) throws IOException {
+        if (players < 2 || players > Game.MAX_PLAYERS || humans < 1 || humans > players) {
+            throw new IllegalArgumentException("Cannot seat " + humans + " of " + players + " players");
+        }
+        this.players = players;
+        this.humans = humans;
+        selector = Selector.open();
+    }
+
+    public void run(InetSocketAddress address, int connections, long durationNanos) throws IOException {
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Bot bot = new Bot(channel);
+            bot.key = channel.register(selector, SelectionKey.OP_CONNECT, bot);
+            if (channel.connect(address)) {
+                connected(bot);
+            }
+        }
+
+        long end = System.nanoTime() + durationNanos;
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            selector.select(Math.max(1, (end - now) / 1_000_000));
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Bot bot = (Bot) key.attachment();
+                try {
+                    if (key.isConnectable()) {
+                        bot.channel.finishConnect();
+                        connected(bot);
+                    } else if (key.isReadable()) {
+                        read(bot);
+                    } else if (key.isWritable()) {
+                        flush(bot);
+                    }
+                } catch (IOException e) {
+                    key.cancel();
+                    bot.channel.close();
+                    connectionsLost++;
+                }
+            }
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void connected(Bot bot) throws IOException {
+        bot.key.interestOps(SelectionKey.OP_READ);
+        join(bot);
+    }
+
+    private void join(Bot bot) throws IOException {
+        Protocol.beginFrame(bot.out, Protocol.JOIN, 2);
+        bot.out.put((byte) players);
+        bot.out.put((byte) humans);
+        flush(bot);
+    }
+
+    private void read(Bot bot) throws IOException {
+        ByteBuffer in = bot.in;
+        if (bot.channel.read(in) < 0) {
+            throw new IOException("Server closed the connection");
+        }
+        if (bot.askedAt != 0) {
+            latency.record(System.nanoTime() - bot.askedAt);
+            bot.askedAt = 0;
+            turns++;
+        }
+        in.flip();
+        int length;
+        while ((length = Protocol.nextFrame(in, Protocol.MAX_FRAME)) >= 0) {
+            int end = in.position() + Protocol.HEADER_BYTES + length;
+            in.position(in.position() + Protocol.HEADER_BYTES);
+            handle(bot, in.get(), in);
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    private void handle(Bot bot, byte type, ByteBuffer payload) throws IOException {
+        switch (type) {
+            case Protocol.SEATED -> {
+                bot.seat = payload.get() & 0xFF;
+                bot.tablePlayers = payload.get() & 0xFF;
+            }
+            case Protocol.YOUR_TURN -> ask(bot, payload.getLong());
+            case Protocol.REJECTED -> rejected++;
+            case Protocol.GAME_OVER -> {
+                gameOvers++;
+                join(bot);
+            }
+            // The bots play without looking at the table
+            case Protocol.EVENTS -> { }
+            default -> throw new IOException("Unknown message type " + type);
+        }
+    }
+
+    // A random rank from the hand, of a random other seat
+    private void ask(Bot bot, long hand) throws IOException {
+        int pick = random.nextInt(Long.bitCount(hand));
+        long bits = hand;
+        for (int i = 0; i < pick; i++) {
+            bits &= bits - 1;
+        }
+        int rankIndex = Long.numberOfTrailingZeros(bits) / Card.SUIT_COUNT;
+        int target = random.nextInt(bot.tablePlayers - 1);
+        if (target >= bot.seat) target++;
+
+        Protocol.beginFrame(bot.out, Protocol.ASK, 2);
+        bot.out.put((byte) rankIndex);
+        bot.out.put((byte) target);
+        bot.askedAt = System.nanoTime();
+        flush(bot);
+    }
+
+    private void flush(Bot bot) throws IOException {
+        bot.out.flip();
+        bot.channel.write(bot.out);
+        bot.out.compact();
+        bot.key.interestOps(bot.out.position() == 0
+            ? SelectionKey.OP_READ
+            : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        String host = "localhost";
+        int port = GameServer.DEFAULT_PORT;
+        boolean embedded = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--host") && i + 1 < args.length) {
+                host = args[++i];
+            } else if (args[i].equals("--port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--embedded")) {
+                embedded = true;
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        int connections = positional.size() > 0 ? Integer.parseInt(positional.get(0)) : 1000;
+        int seconds = positional.size() > 1 ? Integer.parseInt(positional.get(1)) : 10;
+        int players = positional.size() > 2 ? Integer.parseInt(positional.get(2)) : 4;
+        int humans = positional.size() > 3 ? Integer.parseInt(positional.get(3)) : players;
+
+        GameServer server = null;
+        if (embedded) {
+            server = new GameServer(0, Strategies.SIMPLE);
+            port = server.getPort();
+            GameServer embeddedServer = server;
+            Thread thread = new Thread(() -> {
+                try {
+                    embeddedServer.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, "gofish-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        LoadTestClient client = new LoadTestClient(players, humans);
+        client.run(new InetSocketAddress(host, port), connections, seconds * 1_000_000_000L);
+
+        System.out.printf("%d connections, %d-player tables with %d remote, %d s%n",
+            connections, players, humans, seconds);
+        System.out.printf("%d turns, %.0f turns/s, %d games, %d rejected, %d connections lost%n",
+            client.turns, client.turns / (double) seconds, client.gameOvers / humans, client.rejected,
+            client.connectionsLost);
+        System.out.printf("latency p50 %d us  p99 %d us  max %d us%n",
+            client.latency.getPercentile(50) / 1000, client.latency.getPercentile(99) / 1000,
+            client.latency.getMax() / 1000);
+        if (server != null) {
+            System.out.printf("server: %d moves, %d rejected, %d games%n",
+                server.getMovesPlayed(), server.getMovesRejected(), server.getGamesCompleted());
+            server.close();
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package gofish;
+
 import javax.swing.*;
 
 public class Main {
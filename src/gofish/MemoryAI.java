@@ -0,0 +1,64 @@
+package gofish;
+
+import java.util.List;
+
+// AI that remembers the table. It asks opponents who are known to hold a rank
+// it has, and otherwise estimates who is most likely to hold one, skipping
+// opponents known to lack it. All knowledge comes from RankKnowledge, so a
+// decision costs O(ranks * players) however long the game has run.
+public final class MemoryAI implements Strategy {
+
+    // Scores are integers: a known holder beats any guess, and a guess is
+    // ranked by how many of the missing cards the opponent can be expected
+    // to hold (hand size * missing cards, over the same unseen pool for every
+    // candidate). The number of cards already held breaks ties.
+    private static final int KNOWN_HOLDER = 1 << 20;
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public Move chooseMove(Game game, int seat) {
+        List<Player> players = game.getPlayers();
+        RankKnowledge knowledge = game.getKnowledge();
+        long hand = players.get(seat).getHandBits();
+        Move bestMove = null;
+        int bestScore = -1;
+        int ties = 0;
+
+        // Visit only the ranks in hand, one 4-bit group at a time
+        for (long remaining = hand; remaining != 0; ) {
+            int rankIndex = Long.numberOfTrailingZeros(remaining) / Card.SUIT_COUNT;
+            long rankCards = remaining & Player.rankMask(rankIndex);
+            remaining &= ~rankCards;
+            int held = Long.bitCount(rankCards);
+            int rank = 1 << rankIndex;
+
+            for (int target = 0; target < players.size(); target++) {
+                Player opponent = players.get(target);
+                if (target == seat || !opponent.hasCards()) continue;
+
+                int score;
+                if ((knowledge.getKnownHas(target) & rank) != 0) {
+                    score = KNOWN_HOLDER;
+                } else if ((knowledge.getKnownLacks(target) & rank) != 0) {
+                    score = 0;
+                } else {
+                    score = opponent.getHandSize() * (Card.SUIT_COUNT - held) * Card.SUIT_COUNT;
+                }
+                score += held;
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = Move.of(rankIndex, target);
+                    ties = 1;
+                } else if (score == bestScore && game.getRandom().nextInt(++ties) == 0) {
+                    bestMove = Move.of(rankIndex, target);
+                }
+            }
+        }
+        return bestMove;
+    }
+}
@@ -0,0 +1,188 @@
+package gofish;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide turn and latency metrics, switched on with -Dgofish.metrics.
+// ENABLED is a static final constant, and every call site checks it first,
+// so with metrics off the JIT folds the instrumentation away entirely. With
+// metrics on, counters are LongAdders and latencies go into
+// LatencyHistograms, both striped per thread, so parallel tournaments
+// record without contending for the same cache lines.
+public final class Metrics implements MetricsMXBean {
+    public static final boolean ENABLED = Boolean.getBoolean("gofish.metrics");
+
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final LatencyHistogram turnTime = new LatencyHistogram();
+    private final LatencyHistogram decisionTime = new LatencyHistogram();
+    private final LatencyHistogram rebuildTime = new LatencyHistogram();
+    private final LongAdder asks = new LongAdder();
+    private final LongAdder goFish = new LongAdder();
+    private final LongAdder cardsTransferred = new LongAdder();
+    private final LongAdder gamesCompleted = new LongAdder();
+    private volatile long startNanos = System.nanoTime();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(INSTANCE, new ObjectName("gofish:type=Metrics"));
+            } catch (JMException e) {
+                throw new IllegalStateException("Could not register metrics MBean", e);
+            }
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    // Only call these behind a check of ENABLED
+
+    // Returns the time the turn ended, for the next one to start from
+    static long recordTurn(long startNanos) {
+        long now = System.nanoTime();
+        INSTANCE.turnTime.record(now - startNanos);
+        return now;
+    }
+
+    static void recordDecision(long startNanos) {
+        INSTANCE.decisionTime.record(System.nanoTime() - startNanos);
+    }
+
+    static void recordRebuild(long startNanos) {
+        INSTANCE.rebuildTime.record(System.nanoTime() - startNanos);
+    }
+
+    // An ask that transferred no cards sent the asker fishing
+    static void recordAsk(int cards) {
+        INSTANCE.asks.increment();
+        if (cards == 0) {
+            INSTANCE.goFish.increment();
+        } else {
+            INSTANCE.cardsTransferred.add(cards);
+        }
+    }
+
+    static void recordGameOver() {
+        INSTANCE.gamesCompleted.increment();
+    }
+
+    public LatencyHistogram getTurnTime() {
+        return turnTime;
+    }
+
+    public LatencyHistogram getDecisionTime() {
+        return decisionTime;
+    }
+
+    public LatencyHistogram getRebuildTime() {
+        return rebuildTime;
+    }
+
+    @Override
+    public long getTurns() {
+        return turnTime.getCount();
+    }
+
+    @Override
+    public long getTurnP50Nanos() {
+        return turnTime.getPercentile(50);
+    }
+
+    @Override
+    public long getTurnP99Nanos() {
+        return turnTime.getPercentile(99);
+    }
+
+    @Override
+    public long getTurnMaxNanos() {
+        return turnTime.getMax();
+    }
+
+    @Override
+    public long getDecisions() {
+        return decisionTime.getCount();
+    }
+
+    @Override
+    public long getDecisionP50Nanos() {
+        return decisionTime.getPercentile(50);
+    }
+
+    @Override
+    public long getDecisionP99Nanos() {
+        return decisionTime.getPercentile(99);
+    }
+
+    @Override
+    public long getDecisionMaxNanos() {
+        return decisionTime.getMax();
+    }
+
+    @Override
+    public long getAsks() {
+        return asks.sum();
+    }
+
+    @Override
+    public long getCardsTransferred() {
+        return cardsTransferred.sum();
+    }
+
+    @Override
+    public double getGoFishRate() {
+        long total = asks.sum();
+        return total == 0 ? 0 : (double) goFish.sum() / total;
+    }
+
+    @Override
+    public long getRebuilds() {
+        return rebuildTime.getCount();
+    }
+
+    @Override
+    public long getRebuildP50Nanos() {
+        return rebuildTime.getPercentile(50);
+    }
+
+    @Override
+    public long getRebuildP99Nanos() {
+        return rebuildTime.getPercentile(99);
+    }
+
+    @Override
+    public long getRebuildMaxNanos() {
+        return rebuildTime.getMax();
+    }
+
+    @Override
+    public long getGamesCompleted() {
+        return gamesCompleted.sum();
+    }
+
+    // Averaged since start-up or the last reset
+    @Override
+    public double getGamesPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : gamesCompleted.sum() / seconds;
+    }
+
+    @Override
+    public void reset() {
+        turnTime.reset();
+        decisionTime.reset();
+        rebuildTime.reset();
+        asks.reset();
+        goFish.reset();
+        cardsTransferred.reset();
+        gamesCompleted.reset();
+        startNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,41 @@
+package gofish;
+
+// Management view of Metrics, registered as gofish:type=Metrics when the
+// gofish.metrics system property is set. Latencies are in nanoseconds.
+public interface MetricsMXBean {
+    long getTurns();
+
+    long getTurnP50Nanos();
+
+    long getTurnP99Nanos();
+
+    long getTurnMaxNanos();
+
+    long getDecisions();
+
+    long getDecisionP50Nanos();
+
+    long getDecisionP99Nanos();
+
+    long getDecisionMaxNanos();
+
+    long getAsks();
+
+    long getCardsTransferred();
+
+    double getGoFishRate();
+
+    long getRebuilds();
+
+    long getRebuildP50Nanos();
+
+    long getRebuildP99Nanos();
+
+    long getRebuildMaxNanos();
+
+    long getGamesCompleted();
+
+    double getGamesPerSecond();
+
+    void reset();
+}
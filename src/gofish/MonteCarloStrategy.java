@@ -0,0 +1,331 @@
+package gofish;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+// Determinization search. Each rollout deals the cards this seat cannot see
+// into a hidden layout consistent with RankKnowledge, makes one candidate ask
+// and plays the game out with random moves. The ask with the most sets on
+// average wins. Rollouts are spread over a fork-join pool.
+//
+// By default a move gets DEFAULT_BUDGET_MILLIS, so an AI turn never stalls
+// the GUI's event thread, and at most DEFAULT_ROLLOUTS rollouts. How many
+// rollouts fit in the budget depends on the machine, so the move does too;
+// the EventLog records every ask, which is what a played game replays from.
+// Rollout i is seeded from one draw of the game's random and i alone, and
+// the results are summed, so the count-only constructor picks the same move
+// for the same seeded game whatever the parallelism. It has no deadline and
+// is meant for tests and batch runs.
+public final class MonteCarloStrategy implements Strategy {
+    public static final long DEFAULT_BUDGET_MILLIS = 50;
+    public static final int DEFAULT_ROLLOUTS = 512;
+    private static final int MAX_ROLLOUT_TURNS = 2_000;
+    private static final int MAX_DEALS = 8;
+    // Spaces out the rollout indices before mixing, as SplittableRandom does
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long budgetNanos;
+    private final int maxRolloutsPerMove;
+    private final ForkJoinPool pool;
+
+    public MonteCarloStrategy() {
+        this(DEFAULT_BUDGET_MILLIS, DEFAULT_ROLLOUTS, ForkJoinPool.commonPool());
+    }
+
+    // Exactly rolloutsPerMove rollouts of every candidate move, however long
+    // they take
+    public MonteCarloStrategy(int rolloutsPerMove, ForkJoinPool pool) {
+        this(0, rolloutsPerMove, pool);
+    }
+
+    // Stops at whichever comes first: the time budget or maxRolloutsPerMove
+    // rollouts of every candidate move. A budget of 0 means no time limit.
+    public MonteCarloStrategy(long budgetMillis, int maxRolloutsPerMove, ForkJoinPool pool) {
+        if (budgetMillis < 0 || maxRolloutsPerMove < 1) {
+            throw new IllegalArgumentException("Bad rollout limits: " + budgetMillis + " ms, " + maxRolloutsPerMove);
+        }
+        if (budgetMillis == 0 && maxRolloutsPerMove == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Rollouts need a time budget or a count");
+        }
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.maxRolloutsPerMove = maxRolloutsPerMove;
+        this.pool = pool;
+    }
+
+    @Override
+    public String getName() {
+        return "montecarlo";
+    }
+
+    @Override
+    public Move chooseMove(Game game, int seat) {
+        List<Player> players = game.getPlayers();
+        long hand = players.get(seat).getHandBits();
+
+        // Candidate asks: each rank in hand times each opponent with cards
+        Move[] candidates = new Move[Card.RANK_COUNT * players.size()];
+        int candidateCount = 0;
+        for (long remaining = hand; remaining != 0; ) {
+            int rankIndex = Long.numberOfTrailingZeros(remaining) / Card.SUIT_COUNT;
+            remaining &= ~Player.rankMask(rankIndex);
+            for (int target = 0; target < players.size(); target++) {
+                if (target != seat && players.get(target).hasCards()) {
+                    candidates[candidateCount++] = Move.of(rankIndex, target);
+                }
+            }
+        }
+        // An ask of a seat known to hold the rank is a sure gain, and
+        // rollouts undervalue it because they cannot see what the cards are
+        // worth later on, so it is played without searching
+        RankKnowledge knowledge = game.getKnowledge();
+        for (int i = 0; i < candidateCount; i++) {
+            Move move = candidates[i];
+            if ((knowledge.getKnownHas(move.getTarget()) & 1 << move.getRankIndex()) != 0) {
+                return move;
+            }
+        }
+        if (candidateCount <= 1) {
+            return candidateCount == 0 ? null : candidates[0];
+        }
+
+        View view = new View(game, seat);
+        int workers = Math.max(1, pool.getParallelism());
+        long deadline = budgetNanos == 0 ? Long.MAX_VALUE : System.nanoTime() + budgetNanos;
+        // Each worker gets a run of consecutive rollouts
+        int chunk = (int) (((long) maxRolloutsPerMove + workers - 1) / workers);
+        long seed = game.getRandom().nextLong();
+
+        Stats stats = pool.invoke(new Rollouts(view, candidates, candidateCount, seed, 0, maxRolloutsPerMove,
+            chunk, deadline));
+
+        int best = 0;
+        double bestValue = -1;
+        for (int i = 0; i < candidateCount; i++) {
+            if (stats.counts[i] == 0) continue;
+            double value = (double) stats.sets[i] / stats.counts[i];
+            if (value > bestValue) {
+                bestValue = value;
+                best = i;
+            }
+        }
+        return candidates[best];
+    }
+
+    // Everything the deciding seat may use, captured once per decision so the
+    // workers never touch the live Game. EndgameStrategy deals from it too.
+    static final class View {
+        final int seat;
+        final int playerCount;
+        final long ownHand;
+        final int[] handSizes;
+        final int[] scores;
+        final int[] knownHas;
+        final int[] knownLacks;
+        final int completedRanks;
+        final int deckSize;
+        final byte[] unseen;
+
+        View(Game game, int seat) {
+            List<Player> players = game.getPlayers();
+            RankKnowledge knowledge = game.getKnowledge();
+            this.seat = seat;
+            this.playerCount = players.size();
+            this.ownHand = players.get(seat).getHandBits();
+            this.handSizes = new int[playerCount];
+            this.scores = new int[playerCount];
+            this.knownHas = new int[playerCount];
+            this.knownLacks = new int[playerCount];
+            for (int i = 0; i < playerCount; i++) {
+                handSizes[i] = players.get(i).getHandSize();
+                scores[i] = game.getScores().get(players.get(i));
+                knownHas[i] = knowledge.getKnownHas(i);
+                knownLacks[i] = knowledge.getKnownLacks(i);
+            }
+            this.completedRanks = knowledge.getCompletedRanks();
+            this.deckSize = game.getDeckSize();
+
+            long completedCards = 0;
+            for (int rankIndex = 0; rankIndex < Card.RANK_COUNT; rankIndex++) {
+                if ((completedRanks & 1 << rankIndex) != 0) {
+                    completedCards |= Player.rankMask(rankIndex);
+                }
+            }
+            long hidden = ~(ownHand | completedCards) & ((1L << Card.DECK_SIZE) - 1);
+            this.unseen = new byte[Long.bitCount(hidden)];
+            int n = 0;
+            for (long bits = hidden; bits != 0; bits &= bits - 1) {
+                unseen[n++] = (byte) Long.numberOfTrailingZeros(bits);
+            }
+        }
+
+        // Deals the unseen cards into opponents' hands and the deck so that
+        // known holdings are honoured where possible, then fills state
+        void determinize(GameState state, byte[] pool, byte[] deck, RandomGenerator random) {
+            int size = unseen.length;
+            System.arraycopy(unseen, 0, pool, 0, size);
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                byte swap = pool[i];
+                pool[i] = pool[j];
+                pool[j] = swap;
+            }
+
+            // pool[0, used) holds cards already placed
+            int used = 0;
+            for (int opponent = 0; opponent < playerCount; opponent++) {
+                if (opponent == seat) {
+                    state.setHand(opponent, ownHand);
+                    continue;
+                }
+                long hand = 0;
+                int need = handSizes[opponent];
+
+                // One card of every rank the opponent is known to hold
+                for (int has = knownHas[opponent]; has != 0 && need > 0; has &= has - 1) {
+                    int rankIndex = Integer.numberOfTrailingZeros(has);
+                    for (int i = used; i < size; i++) {
+                        if (pool[i] / Card.SUIT_COUNT == rankIndex) {
+                            hand |= 1L << pool[i];
+                            swapInto(pool, used++, i);
+                            need--;
+                            break;
+                        }
+                    }
+                }
+                // Then cards of ranks not known to be missing, falling back
+                // to anything if the constraints cannot all be met
+                for (int pass = 0; pass < 2 && need > 0; pass++) {
+                    for (int i = used; i < size && need > 0; i++) {
+                        int rank = 1 << pool[i] / Card.SUIT_COUNT;
+                        if (pass == 1 || (knownLacks[opponent] & rank) == 0) {
+                            hand |= 1L << pool[i];
+                            swapInto(pool, used++, i);
+                            need--;
+                        }
+                    }
+                }
+                state.setHand(opponent, hand);
+            }
+
+            int deckCount = Math.min(deckSize, size - used);
+            System.arraycopy(pool, used, deck, 0, deckCount);
+            state.setDeck(deck, deckCount);
+            for (int i = 0; i < playerCount; i++) {
+                state.setScore(i, scores[i]);
+                state.setKnownHas(i, knownHas[i]);
+            }
+            state.setCompletedRanks(completedRanks);
+            state.setCurrent(seat);
+        }
+
+        private static void swapInto(byte[] pool, int to, int from) {
+            byte swap = pool[to];
+            pool[to] = pool[from];
+            pool[from] = swap;
+        }
+    }
+
+    private static final class Stats {
+        final long[] sets;
+        final int[] counts;
+
+        Stats(int candidates) {
+            sets = new long[candidates];
+            counts = new int[candidates];
+        }
+
+        Stats merge(Stats other) {
+            for (int i = 0; i < sets.length; i++) {
+                sets[i] += other.sets[i];
+                counts[i] += other.counts[i];
+            }
+            return this;
+        }
+    }
+
+    // Splits the rollouts [from, to) in halves down to chunks; each leaf runs
+    // its rollouts in order, every candidate in each, on its own scratch
+    // state until the deadline or the end of its chunk
+    private static final class Rollouts extends RecursiveTask<Stats> {
+        private final View view;
+        private final Move[] candidates;
+        private final int candidateCount;
+        private final long seed;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final long deadline;
+
+        Rollouts(View view, Move[] candidates, int candidateCount, long seed, int from, int to, int chunk,
+                 long deadline) {
+            this.view = view;
+            this.candidates = candidates;
+            this.candidateCount = candidateCount;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from > chunk) {
+                int mid = (int) (((long) from + to) >>> 1);
+                Rollouts left = new Rollouts(view, candidates, candidateCount, seed, from, mid, chunk, deadline);
+                left.fork();
+                Stats right = new Rollouts(view, candidates, candidateCount, seed, mid, to, chunk, deadline).compute();
+                return left.join().merge(right);
+            }
+
+            // Reseeded rather than replaced: playing the candidates out
+            // allocates nothing, and a deal only copies its deck
+            GameRandom dealRandom = new GameRandom(0);
+            GameRandom playRandom = new GameRandom(0);
+            GameState dealt = new GameState(view.playerCount);
+            GameState state = new GameState(view.playerCount);
+            byte[] pool = new byte[Card.DECK_SIZE];
+            byte[] deck = new byte[Card.DECK_SIZE];
+            Stats stats = new Stats(candidateCount);
+
+            // Every candidate is played from the same deal with the same
+            // rollout seed, so the comparison between moves is not drowned
+            // out by the luck of the deal. The deadline is checked before
+            // every play-out, not just every deal, since one deal of a wide
+            // hand can take milliseconds; each candidate keeps its own count,
+            // so a deal cut short still averages correctly.
+            boolean timed = deadline != Long.MAX_VALUE;
+            for (int i = from; i < to; i++) {
+                if (timed && System.nanoTime() > deadline) break;
+                dealRandom.setSeed(mix(seed + (i + 1) * GOLDEN_GAMMA));
+                view.determinize(dealt, pool, deck, dealRandom);
+                for (int deal = 1; deal < MAX_DEALS && dealt.hasUnscoredSet(); deal++) {
+                    view.determinize(dealt, pool, deck, dealRandom);
+                }
+                dealt.scoreCompleteSets();
+                long rolloutSeed = dealRandom.nextLong();
+                for (int candidate = 0; candidate < candidateCount; candidate++) {
+                    if (timed && candidate > 0 && System.nanoTime() > deadline) break;
+                    state.copyFrom(dealt);
+                    state.ask(candidates[candidate].getRankIndex(), candidates[candidate].getTarget());
+                    playRandom.setSeed(rolloutSeed);
+                    state.playOut(playRandom, MAX_ROLLOUT_TURNS);
+                    stats.sets[candidate] += state.getScore(view.seat);
+                    stats.counts[candidate]++;
+                }
+            }
+            return stats;
+        }
+    }
+
+    // SplittableRandom's seed mixer, so neighbouring rollouts get unrelated
+    // seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,48 @@
+package gofish;
+
+// An ask: a rank and the seat being asked. There are only 13 * 4 distinct
+// moves, so they are shared instances and deciding a move allocates nothing.
+public final class Move {
+    private static final int MAX_SEATS = Game.MAX_PLAYERS;
+    private static final Move[] MOVES = new Move[Card.RANK_COUNT * MAX_SEATS];
+
+    static {
+        for (int rankIndex = 0; rankIndex < Card.RANK_COUNT; rankIndex++) {
+            for (int target = 0; target < MAX_SEATS; target++) {
+                MOVES[rankIndex * MAX_SEATS + target] = new Move(rankIndex, target);
+            }
+        }
+    }
+
+    private final int rankIndex;
+    private final int target;
+
+    private Move(int rankIndex, int target) {
+        this.rankIndex = rankIndex;
+        this.target = target;
+    }
+
+    public static Move of(int rankIndex, int target) {
+        if (rankIndex < 0 || rankIndex >= Card.RANK_COUNT || target < 0 || target >= MAX_SEATS) {
+            throw new IllegalArgumentException("No such move: rank " + rankIndex + ", seat " + target);
+        }
+        return MOVES[rankIndex * MAX_SEATS + target];
+    }
+
+    public int getRankIndex() {
+        return rankIndex;
+    }
+
+    public String getRank() {
+        return Card.RANKS[rankIndex];
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    @Override
+    public String toString() {
+        return "ask seat " + target + " for " + getRank() + "s";
+    }
+}
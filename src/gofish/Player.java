@@ -0,0 +1,172 @@
+package gofish;
+
+import java.util.*;
+
+public class Player {
+    private static final long RANK_BITS = (1L << Card.SUIT_COUNT) - 1;
+
+    private String name;
+    // Bit n is set when the player holds the card with code n. Codes are
+    // rank * 4 + suit, so each rank owns one 4-bit group.
+    private long hand;
+    private Card lastAddedCard;
+    private final List<Card> handView;
+
+    public Player(String name) {
+        this.name = name;
+        this.hand = 0L;
+        this.handView = new HandView();
+    }
+
+    public static long rankMask(int rankIndex) {
+        return RANK_BITS << (rankIndex * Card.SUIT_COUNT);
+    }
+
+    public void addCard(Card card) {
+        if (card != null) {
+            hand |= 1L << card.getCode();
+            lastAddedCard = card;
+        }
+    }
+
+    // Adds every card in a bitmask returned by takeRank
+    public void addCards(long cards) {
+        if (cards != 0) {
+            hand |= cards;
+            lastAddedCard = Card.of(63 - Long.numberOfLeadingZeros(cards));
+        }
+    }
+
+    public boolean hasCard(String rank) {
+        int rankIndex = Card.rankIndex(rank);
+        return rankIndex >= 0 && hasRank(rankIndex);
+    }
+
+    public boolean hasRank(int rankIndex) {
+        return (hand & rankMask(rankIndex)) != 0;
+    }
+
+    public int getRankCount(int rankIndex) {
+        return Long.bitCount(hand & rankMask(rankIndex));
+    }
+
+    public List<Card> giveCards(String rank) {
+        int rankIndex = Card.rankIndex(rank);
+        if (rankIndex < 0) {
+            return new ArrayList<>();
+        }
+        return toCards(takeRank(rankIndex));
+    }
+
+    // Removes every card of the rank and returns them as a bitmask
+    public long takeRank(int rankIndex) {
+        long taken = hand & rankMask(rankIndex);
+        hand &= ~taken;
+        return taken;
+    }
+
+    public void removeCards(String rank) {
+        int rankIndex = Card.rankIndex(rank);
+        if (rankIndex >= 0) {
+            takeRank(rankIndex);
+        }
+    }
+
+    // Read-only live view of the hand in card code order; nothing is copied
+    public List<Card> getHand() {
+        return handView;
+    }
+
+    public long getHandBits() {
+        return hand;
+    }
+
+    public int getHandSize() {
+        return Long.bitCount(hand);
+    }
+
+    public boolean hasCards() {
+        return hand != 0;
+    }
+
+    public Card getLastAddedCard() {
+        return lastAddedCard;
+    }
+
+    // For a restored game; the card may since have left the hand
+    void setLastAddedCard(Card card) {
+        lastAddedCard = card;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void showHand() {
+        System.out.println(name + "'s hand: " + handView);
+    }
+
+    public List<String> getCompletedSets() {
+        List<String> completedSets = new ArrayList<>();
+        for (int rankIndex = 0; rankIndex < Card.RANK_COUNT; rankIndex++) {
+            if (getRankCount(rankIndex) == Card.SUIT_COUNT) {
+                completedSets.add(Card.RANKS[rankIndex]);
+            }
+        }
+        return completedSets;
+    }
+
+    private static List<Card> toCards(long cards) {
+        List<Card> list = new ArrayList<>(Long.bitCount(cards));
+        for (long bits = cards; bits != 0; bits &= bits - 1) {
+            list.add(Card.of(Long.numberOfTrailingZeros(bits)));
+        }
+        return list;
+    }
+
+    private class HandView extends AbstractList<Card> {
+        @Override
+        public Card get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            long bits = hand;
+            for (int i = 0; i < index; i++) {
+                bits &= bits - 1;
+            }
+            return Card.of(Long.numberOfTrailingZeros(bits));
+        }
+
+        @Override
+        public int size() {
+            return Long.bitCount(hand);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return hand == 0;
+        }
+
+        @Override
+        public Iterator<Card> iterator() {
+            return new Iterator<>() {
+                private long remaining = hand;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public Card next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    Card card = Card.of(Long.numberOfTrailingZeros(remaining));
+                    remaining &= remaining - 1;
+                    return card;
+                }
+            };
+        }
+    }
+}
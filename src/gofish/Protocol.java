@@ -0,0 +1,67 @@
+package gofish;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Wire format shared by GameServer and LoadTestClient. Every message is a
+// frame: a two-byte big-endian length covering the type byte and the payload,
+// the type byte, then the payload.
+//
+// Client to server:
+//   JOIN   players u8, humans u8   sit at a table of that size, waiting for
+//                                  that many remote players; AI fills the rest
+//   ASK    rank u8, target u8      the move on the client's turn
+//
+// Server to client:
+//   SEATED    seat u8, players u8
+//   EVENTS    EventLog events, two bytes each; cards dealt or drawn by other
+//             seats have HIDDEN_CARD in place of the card code
+//   YOUR_TURN hand u64             the seat's cards as a Player hand mask
+//   REJECTED  reason, UTF-8        the ask broke a rule and was not played
+//   GAME_OVER score u8 per seat
+final class Protocol {
+    static final int HEADER_BYTES = 2;
+    // Largest frame a client may send. Server frames can be longer.
+    static final int MAX_CLIENT_FRAME = 16;
+    static final int MAX_FRAME = 0xFFFF;
+
+    static final byte JOIN = 1;
+    static final byte ASK = 2;
+
+    static final byte SEATED = (byte) 0x81;
+    static final byte EVENTS = (byte) 0x82;
+    static final byte YOUR_TURN = (byte) 0x83;
+    static final byte REJECTED = (byte) 0x84;
+    static final byte GAME_OVER = (byte) 0x85;
+
+    static final int HIDDEN_CARD = 0xFF;
+
+    private Protocol() {
+    }
+
+    // Starts a frame of the given payload size. The buffer must have room.
+    static void beginFrame(ByteBuffer buffer, byte type, int payloadBytes) {
+        if (payloadBytes + 1 > MAX_FRAME) {
+            throw new IllegalArgumentException("Frame too long: " + payloadBytes + " bytes");
+        }
+        buffer.putShort((short) (payloadBytes + 1));
+        buffer.put(type);
+    }
+
+    static int frameBytes(int payloadBytes) {
+        return HEADER_BYTES + 1 + payloadBytes;
+    }
+
+    // Length of the next whole frame at the buffer's position, not counting
+    // the length field, or -1 if it has not all arrived yet. The buffer is
+    // in read mode and its position is left alone. A frame that is empty or
+    // longer than maxLength means the stream is broken.
+    static int nextFrame(ByteBuffer buffer, int maxLength) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES) return -1;
+        int length = buffer.getShort(buffer.position()) & 0xFFFF;
+        if (length == 0 || length > maxLength) {
+            throw new IOException("Bad frame length " + length);
+        }
+        return buffer.remaining() - HEADER_BYTES >= length ? length : -1;
+    }
+}
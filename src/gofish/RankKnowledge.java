@@ -0,0 +1,67 @@
+package gofish;
+
+// What every player at the table can deduce from the asks and gives so far.
+// For each seat it keeps two 13-bit rank masks: ranks the seat is known to
+// hold and ranks it is known to lack. Every event updates the masks in
+// constant time, so the cost of a decision never depends on game length.
+public final class RankKnowledge implements EventLog.Visitor {
+    private final int[] knownHas;
+    private final int[] knownLacks;
+    private int completedRanks;
+
+    public RankKnowledge(int playerCount) {
+        knownHas = new int[playerCount];
+        knownLacks = new int[playerCount];
+    }
+
+    public int getKnownHas(int seat) {
+        return knownHas[seat];
+    }
+
+    public int getKnownLacks(int seat) {
+        return knownLacks[seat];
+    }
+
+    public int getCompletedRanks() {
+        return completedRanks;
+    }
+
+    @Override
+    public void deal(int player, int cardCode) {
+        // Dealt cards are hidden, so they could be of any rank still in play
+        knownLacks[player] = completedRanks;
+    }
+
+    @Override
+    public void ask(int player, int target, int rankIndex) {
+        int rank = 1 << rankIndex;
+        // Asking shows the asker holds the rank. Whatever the answer, the
+        // target holds none of it afterwards: either they had none or they
+        // just handed every card over.
+        knownHas[player] |= rank;
+        knownLacks[player] &= ~rank;
+        knownHas[target] &= ~rank;
+        knownLacks[target] |= rank;
+    }
+
+    @Override
+    public void give(int player, int from, long cards) {
+        // Already covered by the ask that came before it
+    }
+
+    @Override
+    public void draw(int player, int cardCode) {
+        // A hidden card could be of any rank the player was known to lack
+        knownLacks[player] = completedRanks;
+    }
+
+    @Override
+    public void set(int player, int rankIndex) {
+        int rank = 1 << rankIndex;
+        completedRanks |= rank;
+        for (int seat = 0; seat < knownHas.length; seat++) {
+            knownHas[seat] &= ~rank;
+            knownLacks[seat] |= rank;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package gofish;
+
+import java.util.List;
+
+// The original AI: ask a random opponent for the rank of the first card in hand
+public final class SimpleStrategy implements Strategy {
+    @Override
+    public String getName() {
+        return "simple";
+    }
+
+    @Override
+    public Move chooseMove(Game game, int seat) {
+        List<Player> players = game.getPlayers();
+        int rankIndex = players.get(seat).getHand().get(0).getRankIndex();
+
+        int validTargets = 0;
+        for (int target = 0; target < players.size(); target++) {
+            if (target != seat && players.get(target).hasCards()) {
+                validTargets++;
+            }
+        }
+        if (validTargets == 0) {
+            return null;
+        }
+
+        int pick = game.getRandom().nextInt(validTargets);
+        for (int target = 0; target < players.size(); target++) {
+            if (target != seat && players.get(target).hasCards() && pick-- == 0) {
+                return Move.of(rankIndex, target);
+            }
+        }
+        throw new IllegalStateException("No target left to pick");
+    }
+}
@@ -0,0 +1,29 @@
+package gofish;
+
+import java.util.ServiceLoader;
+
+// Looks strategies up by name: the built-in ones first, then any Strategy
+// implementation registered under META-INF/services/gofish.Strategy.
+public final class Strategies {
+    public static final Strategy SIMPLE = new SimpleStrategy();
+    public static final Strategy MEMORY = new MemoryAI();
+    public static final Strategy MONTE_CARLO = new MonteCarloStrategy();
+    public static final Strategy ENDGAME = new EndgameStrategy();
+
+    private Strategies() {
+    }
+
+    public static Strategy forName(String name) {
+        if (SIMPLE.getName().equals(name)) return SIMPLE;
+        if (MEMORY.getName().equals(name)) return MEMORY;
+        if (MONTE_CARLO.getName().equals(name)) return MONTE_CARLO;
+        if (ENDGAME.getName().equals(name)) return ENDGAME;
+
+        for (Strategy strategy : ServiceLoader.load(Strategy.class)) {
+            if (strategy.getName().equals(name)) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown strategy: " + name);
+    }
+}
@@ -0,0 +1,29 @@
+package gofish;
+
+import java.util.List;
+
+// Decides the moves of an AI seat. Game calls chooseMove with itself and the
+// seat whose turn it is; the seat always holds at least one card.
+//
+// One instance may serve many seats and games on several threads at once,
+// so per-game state belongs in Game (see Game.getKnowledge()), not here.
+// Implementations from other jars are found with ServiceLoader; see
+// Strategies.forName.
+public interface Strategy {
+    // Name used to pick the strategy for a seat, e.g. "memory"
+    String getName();
+
+    // Returns the move to make, or null when no other seat holds cards
+    Move chooseMove(Game game, int seat);
+
+    // Decides for many independent games at once, each at its current seat.
+    // moves[i] receives the decision for games.get(i). Strategies with costly
+    // setup (lookahead, learned evaluators) override this to share it across
+    // the batch.
+    default void chooseMoves(List<Game> games, Move[] moves) {
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(i);
+            moves[i] = chooseMove(game, game.getCurrentPlayerIndex());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package gofish;
+
+import java.awt.Rectangle;
+
+// Where everything sits on the table for one frame size. The fixed panels,
+// and the seat and hand positions for every player count and current seat,
+// are all worked out when the layout is made, so a state update only looks
+// them up. GameGUI makes a new TableLayout when the window is resized.
+//
+// The positions keep the proportions of the original 1000x700 design: seats
+// hug the edges, the deck and controls stay centred.
+final class TableLayout {
+    static final int SEAT_WIDTH = 150;
+    static final int SEAT_HEIGHT = 100;
+
+    private static final int MARGIN = 50;
+    private static final int HAND_DEPTH = 150;
+
+    // Seats in turn order, starting with the current player's, for each
+    // player count
+    private enum Side { BOTTOM, LEFT, TOP, RIGHT }
+    private static final Side[][] SIDES = {
+        {Side.BOTTOM},
+        {Side.BOTTOM, Side.TOP},
+        {Side.BOTTOM, Side.LEFT, Side.RIGHT},
+        {Side.BOTTOM, Side.LEFT, Side.TOP, Side.RIGHT}
+    };
+
+    // Positions with one player's turn in front of the screen
+    static final class Seating {
+        private final Rectangle[] seats;
+        private final Rectangle hand;
+        private final boolean vertical;
+        private final int[] cardSpacing;
+
+        private Seating(Rectangle[] seats, Rectangle hand, boolean vertical, int[] cardSpacing) {
+            this.seats = seats;
+            this.hand = hand;
+            this.vertical = vertical;
+            this.cardSpacing = cardSpacing;
+        }
+
+        Rectangle getSeat(int player) {
+            return seats[player];
+        }
+
+        // Bounds of the current player's hand panel
+        Rectangle getHand() {
+            return hand;
+        }
+
+        boolean isVertical() {
+            return vertical;
+        }
+
+        int getCardSpacing(int handSize) {
+            return cardSpacing[Math.min(handSize, cardSpacing.length - 1)];
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final Rectangle deck;
+    private final Rectangle log;
+    private final Rectangle controls;
+    // [player count - 1][current seat]
+    private final Seating[][] seatings = new Seating[Game.MAX_PLAYERS][];
+
+    TableLayout(int width, int height) {
+        this.width = width;
+        this.height = height;
+        deck = new Rectangle(width / 2 - 50, height / 2 - 75, 100, 150);
+        log = new Rectangle(width / 2 - 300, height - 100, 600, 80);
+        controls = new Rectangle(width / 2 - 150, height / 2 - 150, 300, 60);
+
+        Rectangle[] sideSeats = new Rectangle[Side.values().length];
+        Rectangle[] sideHands = new Rectangle[Side.values().length];
+        int[][] sideSpacing = new int[Side.values().length][];
+        for (Side side : Side.values()) {
+            sideSeats[side.ordinal()] = seatBounds(side);
+            Rectangle hand = handBounds(side);
+            sideHands[side.ordinal()] = hand;
+            sideSpacing[side.ordinal()] = cardSpacing(hand, isVertical(side));
+        }
+
+        for (int players = 1; players <= Game.MAX_PLAYERS; players++) {
+            Side[] sides = SIDES[players - 1];
+            Seating[] byCurrent = new Seating[players];
+            for (int current = 0; current < players; current++) {
+                // Rotate so the current player always sits at sides[0]
+                Rectangle[] seats = new Rectangle[players];
+                for (int i = 0; i < players; i++) {
+                    seats[i] = sideSeats[sides[(i - current + players) % players].ordinal()];
+                }
+                Side own = sides[0];
+                byCurrent[current] = new Seating(seats, sideHands[own.ordinal()],
+                    isVertical(own), sideSpacing[own.ordinal()]);
+            }
+            seatings[players - 1] = byCurrent;
+        }
+    }
+
+    boolean fits(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    Rectangle getDeck() {
+        return deck;
+    }
+
+    Rectangle getLog() {
+        return log;
+    }
+
+    Rectangle getControls() {
+        return controls;
+    }
+
+    Seating getSeating(int players, int current) {
+        if (players < 1 || players > Game.MAX_PLAYERS) {
+            throw new IllegalArgumentException("The table seats 1 to " + Game.MAX_PLAYERS + " players: " + players);
+        }
+        return seatings[players - 1][current];
+    }
+
+    private Rectangle seatBounds(Side side) {
+        switch (side) {
+            case TOP:
+                return new Rectangle(width / 2 - 100, MARGIN, SEAT_WIDTH, SEAT_HEIGHT);
+            case LEFT:
+                return new Rectangle(MARGIN, height / 2 - 75, SEAT_WIDTH, SEAT_HEIGHT);
+            case RIGHT:
+                return new Rectangle(width - 250, height / 2 - 75, SEAT_WIDTH, SEAT_HEIGHT);
+            default:
+                return new Rectangle(width / 2 - 100, height - 200, SEAT_WIDTH, SEAT_HEIGHT);
+        }
+    }
+
+    private Rectangle handBounds(Side side) {
+        switch (side) {
+            case LEFT:
+                return new Rectangle(MARGIN, 100, HAND_DEPTH, height - 300);
+            case RIGHT:
+                return new Rectangle(width - 200, 100, HAND_DEPTH, height - 300);
+            case TOP:
+                return new Rectangle(MARGIN, MARGIN, width - 2 * MARGIN, HAND_DEPTH);
+            default:
+                return new Rectangle(MARGIN, height - HAND_DEPTH, width - 2 * MARGIN, HAND_DEPTH);
+        }
+    }
+
+    private static boolean isVertical(Side side) {
+        return side == Side.LEFT || side == Side.RIGHT;
+    }
+
+    // Spacing for every possible hand size, closing up as the hand grows
+    private static int[] cardSpacing(Rectangle hand, boolean vertical) {
+        int[] spacing = new int[Card.DECK_SIZE + 1];
+        for (int size = 0; size < spacing.length; size++) {
+            spacing[size] = vertical
+                ? Math.min(60, (hand.height - 100) / Math.max(1, size))
+                : Math.min(80, (hand.width - 100) / Math.max(1, size));
+        }
+        return spacing;
+    }
+}
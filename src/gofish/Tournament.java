@@ -0,0 +1,250 @@
+package gofish;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Plays many independent all-AI games in parallel and merges the results.
+// Usage: java Tournament [games] [players] [seed] [--archive file]
+//                        [--strategies name,name,...] [--batch]
+public class Tournament {
+    private static final int GAMES_PER_TASK = 256;
+    private static final String[] AI_NAMES = {"AI-Alice", "AI-Bob", "AI-Charlie", "AI-Dave"};
+
+    private final int playerCount;
+    private final long seed;
+    private GameArchive.Writer archive;
+    private final Strategy[] strategies;
+    private boolean batched;
+
+    public Tournament(int playerCount, long seed) {
+        if (playerCount < 2 || playerCount > AI_NAMES.length) {
+            throw new IllegalArgumentException("Player count must be between 2 and " + AI_NAMES.length);
+        }
+        this.playerCount = playerCount;
+        this.seed = seed;
+        this.strategies = new Strategy[playerCount];
+        Arrays.fill(strategies, Strategies.SIMPLE);
+    }
+
+    public void setStrategy(int seat, Strategy strategy) {
+        strategies[seat] = strategy;
+    }
+
+    // Plays each task's games in lockstep through BatchRunner, so strategies
+    // receive their decisions in batches
+    public void setBatched(boolean batched) {
+        this.batched = batched;
+    }
+
+    // Finished games are appended to the archive as they complete
+    public void setArchive(GameArchive.Writer archive) {
+        this.archive = archive;
+    }
+
+    public Result run(int games) {
+        return run(games, ForkJoinPool.commonPool());
+    }
+
+    public Result run(int games, ForkJoinPool pool) {
+        return pool.invoke(new GamesTask(0, games));
+    }
+
+    // Plays games [from, to) on the calling thread. Game seeds come from a
+    // Random private to this task, so any single game can be replayed later.
+    private Result playGames(int from, int to) {
+        Random random = new Random(seed + from * 0x9E3779B97F4A7C15L);
+        String[] names = Arrays.copyOf(AI_NAMES, playerCount);
+        boolean[] isHuman = new boolean[playerCount];
+        Result result = new Result(playerCount);
+
+        List<Game> games = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Game game = new Game(names, isHuman, false, random.nextLong());
+            for (int seat = 0; seat < playerCount; seat++) {
+                game.setStrategy(seat, strategies[seat]);
+            }
+            games.add(game);
+        }
+
+        if (batched) {
+            BatchRunner.playAll(games);
+        } else {
+            for (Game game : games) {
+                game.play();
+            }
+        }
+
+        for (Game game : games) {
+            result.record(game);
+            if (archive != null) {
+                try {
+                    archive.append(game);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return result;
+    }
+
+    private class GamesTask extends RecursiveTask<Result> {
+        private final int from;
+        private final int to;
+
+        GamesTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                return playGames(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            GamesTask left = new GamesTask(from, mid);
+            left.fork();
+            Result right = new GamesTask(mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    public static class Result {
+        private long games;
+        private long ties;
+        private final long[] wins;
+        private final long[] sets;
+
+        Result(int playerCount) {
+            wins = new long[playerCount];
+            sets = new long[playerCount];
+        }
+
+        void record(Game game) {
+            List<Player> players = game.getPlayers();
+            Map<Player, Integer> scores = game.getScores();
+            int best = -1;
+            int winner = -1;
+            boolean tied = false;
+
+            for (int i = 0; i < players.size(); i++) {
+                int score = scores.get(players.get(i));
+                sets[i] += score;
+                if (score > best) {
+                    best = score;
+                    winner = i;
+                    tied = false;
+                } else if (score == best) {
+                    tied = true;
+                }
+            }
+
+            games++;
+            if (tied) {
+                ties++;
+            } else {
+                wins[winner]++;
+            }
+        }
+
+        Result merge(Result other) {
+            games += other.games;
+            ties += other.ties;
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                sets[i] += other.sets[i];
+            }
+            return this;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getTies() {
+            return ties;
+        }
+
+        public double getWinRate(int seat) {
+            return games == 0 ? 0 : (double) wins[seat] / games;
+        }
+
+        public double getSetsPerGame(int seat) {
+            return games == 0 ? 0 : (double) sets[seat] / games;
+        }
+
+        public int getPlayerCount() {
+            return wins.length;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        Path archivePath = null;
+        String strategyNames = "";
+        boolean batched = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--archive") && i + 1 < args.length) {
+                archivePath = Path.of(args[++i]);
+            } else if (args[i].equals("--strategies") && i + 1 < args.length) {
+                strategyNames = args[++i];
+            } else if (args[i].equals("--batch")) {
+                batched = true;
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        int games = positional.size() > 0 ? Integer.parseInt(positional.get(0)) : 100_000;
+        int players = positional.size() > 1 ? Integer.parseInt(positional.get(1)) : 4;
+        long seed = positional.size() > 2 ? Long.parseLong(positional.get(2)) : System.nanoTime();
+
+        Tournament tournament = new Tournament(players, seed);
+        String[] names = strategyNames.split(",");
+        for (int seat = 0; seat < Math.min(players, names.length); seat++) {
+            if (!names[seat].isBlank()) {
+                tournament.setStrategy(seat, Strategies.forName(names[seat].trim()));
+            }
+        }
+        tournament.setBatched(batched);
+        long start = System.nanoTime();
+        Result result;
+        if (archivePath != null) {
+            try (GameArchive.Writer archive = GameArchive.openWriter(archivePath)) {
+                tournament.setArchive(archive);
+                result = tournament.run(games);
+            }
+        } else {
+            result = tournament.run(games);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d games, %d players, seed %d, %d threads%n",
+            result.getGames(), players, seed, ForkJoinPool.commonPool().getParallelism());
+        for (int i = 0; i < result.getPlayerCount(); i++) {
+            System.out.printf("  %-10s %-6s win rate %5.1f%%  sets/game %.2f%n",
+                AI_NAMES[i], tournament.strategies[i].getName(),
+                result.getWinRate(i) * 100, result.getSetsPerGame(i));
+        }
+        System.out.printf("  ties %5.1f%%%n", 100.0 * result.getTies() / Math.max(1, result.getGames()));
+        System.out.printf("%.0f games/s%n", result.getGames() / seconds);
+        if (Metrics.ENABLED) {
+            Metrics metrics = Metrics.get();
+            System.out.printf("turns %d  p50 %d ns  p99 %d ns  max %d ns%n", metrics.getTurns(),
+                metrics.getTurnP50Nanos(), metrics.getTurnP99Nanos(), metrics.getTurnMaxNanos());
+            System.out.printf("decisions %d  p50 %d ns  p99 %d ns  max %d ns%n", metrics.getDecisions(),
+                metrics.getDecisionP50Nanos(), metrics.getDecisionP99Nanos(), metrics.getDecisionMaxNanos());
+            System.out.printf("asks %d  go fish %.1f%%  cards transferred %d%n", metrics.getAsks(),
+                metrics.getGoFishRate() * 100, metrics.getCardsTransferred());
+        }
+
+        if (archivePath != null) {
+            try (GameArchive.Reader reader = GameArchive.openReader(archivePath)) {
+                System.out.printf("%s now holds %d games%n", archivePath, reader.size());
+            }
+        }
+    }
+}
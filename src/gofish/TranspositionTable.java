@@ -0,0 +1,112 @@
+package gofish;
+
+// Fixed-size hash table from 64-bit Zobrist keys to 64-bit entries for
+// EndgameSolver. Keys and entries sit side by side in one long array, in
+// buckets of four slots, so a probe reads 64 contiguous bytes and no
+// objects. The table never grows; when a bucket is full, a new entry
+// replaces, in order of preference, an entry from an earlier search, then
+// the one searched least deep. Deep results are the expensive ones to
+// rebuild, so they survive longest.
+//
+// Entry layout: bits 0-47 values (see EndgameSolver), 48-53 depth,
+// 56-63 generation.
+final class TranspositionTable {
+    static final int SLOTS_PER_BUCKET = 4;
+    private static final long VALUE_BITS = (1L << 48) - 1;
+
+    private final long[] slots;
+    private final int bucketMask;
+    private int generation;
+    private long probes;
+    private long hits;
+
+    // Holds 2^bits buckets of four entries, 64 bytes each
+    TranspositionTable(int bits) {
+        if (bits < 1 || bits > 24) {
+            throw new IllegalArgumentException("Table size must be 2^1 to 2^24 buckets: 2^" + bits);
+        }
+        slots = new long[(1 << bits) * SLOTS_PER_BUCKET * 2];
+        bucketMask = (1 << bits) - 1;
+    }
+
+    // Marks everything stored so far as older than what comes next, so it
+    // is the first to go when space runs out. Nothing is cleared: a
+    // position's value does not change from one search to the next.
+    void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    // The entry stored for key with its generation cleared, or -1 if there
+    // is none; test with found()
+    long probe(long key) {
+        probes++;
+        key = nonZero(key);
+        int base = bucket(key);
+        for (int i = base; i < base + SLOTS_PER_BUCKET * 2; i += 2) {
+            if (slots[i] == key) {
+                hits++;
+                return slots[i + 1] & ~(0xFFL << 56);
+            }
+        }
+        return -1;
+    }
+
+    void store(long key, long values, int depth) {
+        key = nonZero(key);
+        long entry = values & VALUE_BITS | (long) depth << 48 | (long) generation << 56;
+        int base = bucket(key);
+        int victim = -1;
+        int victimScore = Integer.MAX_VALUE;
+        for (int i = base; i < base + SLOTS_PER_BUCKET * 2; i += 2) {
+            if (slots[i] == key) {
+                if (depth >= depth(slots[i + 1])) {
+                    slots[i + 1] = entry;
+                }
+                return;
+            }
+            // Empty slots first, then older searches, then shallow entries
+            int score = slots[i] == 0 ? -1
+                : ((int) (slots[i + 1] >>> 56) == generation ? 1 << 8 : 0) | depth(slots[i + 1]);
+            if (score < victimScore) {
+                victimScore = score;
+                victim = i;
+            }
+        }
+        slots[victim] = key;
+        slots[victim + 1] = entry;
+    }
+
+    static boolean found(long entry) {
+        return entry >= 0;
+    }
+
+    static long values(long entry) {
+        return entry & VALUE_BITS;
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> 48) & 0x3F;
+    }
+
+    long getProbes() {
+        return probes;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    int getCapacity() {
+        return slots.length / 2;
+    }
+
+    private int bucket(long key) {
+        // The low bits also pick the bucket, so mix in the high ones
+        return (int) ((key ^ key >>> 32) & bucketMask) * SLOTS_PER_BUCKET * 2;
+    }
+
+    // Zero marks an empty slot
+    private static long nonZero(long key) {
+        return key == 0 ? 1 : key;
+    }
+}